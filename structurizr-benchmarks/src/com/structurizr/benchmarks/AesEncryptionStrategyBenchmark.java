@@ -0,0 +1,68 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.encryption.AesEncryptionStrategy;
+import com.structurizr.io.json.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringWriter;
+
+/**
+ * Benchmarks encrypting and decrypting the JSON of a workspace. Derived keys are cached, so the
+ * encrypt and decrypt benchmarks measure the cipher alone; the "WithKeyDerivation" variants evict
+ * the cached keys before each invocation, so that they include key derivation too.
+ */
+public class AesEncryptionStrategyBenchmark extends WorkspaceBenchmark {
+
+    private static final String PASSPHRASE = "benchmark passphrase";
+
+    private String plaintext;
+    private String ciphertext;
+    private AesEncryptionStrategy encryptionStrategy;
+
+    @Setup(Level.Trial)
+    public void encryptWorkspace() throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        new JsonWriter(false).write(createWorkspace(true), stringWriter);
+        plaintext = stringWriter.toString();
+
+        encryptionStrategy = new AesEncryptionStrategy(PASSPHRASE);
+        ciphertext = encryptionStrategy.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return encryptionStrategy.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return encryptionStrategy.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    public String encryptWithKeyDerivation(EvictedKeys evictedKeys) throws Exception {
+        return encryptionStrategy.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public String decryptWithKeyDerivation(EvictedKeys evictedKeys) throws Exception {
+        return encryptionStrategy.decrypt(ciphertext);
+    }
+
+    @State(Scope.Thread)
+    public static class EvictedKeys {
+
+        // more than the number of keys that are cached (see SecretKeys)
+        private static final int NUMBER_OF_KEYS = 32;
+
+        @Setup(Level.Invocation)
+        public void evictCachedKeys() throws Exception {
+            // each strategy has a random salt, so its key is derived and cached in place of the least recently used one
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                new AesEncryptionStrategy(PASSPHRASE).encrypt("");
+            }
+        }
+
+    }
+
+}
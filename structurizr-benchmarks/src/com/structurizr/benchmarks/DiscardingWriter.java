@@ -0,0 +1,40 @@
+package com.structurizr.benchmarks;
+
+import java.io.Writer;
+
+/**
+ * A Writer that counts and then discards everything written to it, so that benchmarks
+ * measure the serialization rather than the buffering of the output.
+ */
+final class DiscardingWriter extends Writer {
+
+    private long count;
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        count += length;
+    }
+
+    @Override
+    public void write(String s, int offset, int length) {
+        count += length;
+    }
+
+    @Override
+    public void write(int c) {
+        count++;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import com.structurizr.io.json.JsonSerializationContext;
+import com.structurizr.io.json.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.StringWriter;
+
+/**
+ * Benchmarks Workspace.hydrate() on its own, by deserializing a workspace (without hydrating it) before each invocation.
+ */
+public class HydrateBenchmark extends WorkspaceBenchmark {
+
+    private String json;
+    private Workspace workspace;
+
+    @Setup(Level.Trial)
+    public void createJson() throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        new JsonWriter(false).write(createWorkspace(true), stringWriter);
+        json = stringWriter.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void deserialize() throws Exception {
+        workspace = JsonSerializationContext.getReader(Workspace.class).readValue(json);
+    }
+
+    @Benchmark
+    public Workspace hydrate() {
+        workspace.hydrate();
+        return workspace;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.model.Model;
+import com.structurizr.model.Relationship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Set;
+
+/**
+ * Benchmarks Model.addImplicitRelationships() against a model that doesn't have any implied relationships yet.
+ */
+public class ImplicitRelationshipsBenchmark extends WorkspaceBenchmark {
+
+    private Model model;
+
+    @Setup(Level.Invocation)
+    public void createModel() {
+        model = createWorkspace(false).getModel();
+    }
+
+    @Benchmark
+    public Set<Relationship> addImplicitRelationships() {
+        return model.addImplicitRelationships();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import com.structurizr.io.json.JsonReader;
+import com.structurizr.io.json.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Benchmarks writing a workspace as JSON, reading it back, and the two together.
+ */
+public class JsonBenchmark extends WorkspaceBenchmark {
+
+    private Workspace workspace;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void createWorkspace() throws Exception {
+        workspace = createWorkspace(true);
+
+        StringWriter stringWriter = new StringWriter();
+        new JsonWriter(false).write(workspace, stringWriter);
+        json = stringWriter.toString();
+    }
+
+    @Benchmark
+    public long write() throws Exception {
+        DiscardingWriter writer = new DiscardingWriter();
+        new JsonWriter(false).write(workspace, writer);
+
+        return writer.getCount();
+    }
+
+    @Benchmark
+    public Workspace read() throws Exception {
+        return new JsonReader().read(new StringReader(json));
+    }
+
+    @Benchmark
+    public Workspace roundTrip() throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        new JsonWriter(false).write(workspace, stringWriter);
+
+        return new JsonReader().read(new StringReader(stringWriter.toString()));
+    }
+
+}
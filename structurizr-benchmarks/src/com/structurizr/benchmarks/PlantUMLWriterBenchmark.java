@@ -0,0 +1,29 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import com.structurizr.io.plantuml.PlantUMLWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks writing all of the views in a workspace as PlantUML definitions.
+ */
+public class PlantUMLWriterBenchmark extends WorkspaceBenchmark {
+
+    private Workspace workspace;
+
+    @Setup(Level.Trial)
+    public void createWorkspace() {
+        workspace = createWorkspace(true);
+    }
+
+    @Benchmark
+    public long write() throws Exception {
+        DiscardingWriter writer = new DiscardingWriter();
+        new PlantUMLWriter().write(workspace, writer);
+
+        return writer.getCount();
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.Container;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.model.Tags;
+import com.structurizr.view.ContainerView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks populating a static view with addAllElements() and addNearestNeighbours(). The same
+ * (emptied) view is reused for every invocation, so that the view set doesn't grow.
+ */
+public class StaticViewBenchmark extends WorkspaceBenchmark {
+
+    private ContainerView view;
+    private Container container;
+
+    @Setup(Level.Trial)
+    public void createView() {
+        Workspace workspace = createWorkspace(true);
+        SoftwareSystem softwareSystem = workspace.getModel().getSoftwareSystemWithName("Software System 0");
+        container = softwareSystem.getContainers().iterator().next();
+        view = workspace.getViews().createContainerView(softwareSystem, "Benchmark", "");
+    }
+
+    @Setup(Level.Invocation)
+    public void clearView() {
+        view.removeElementsWithTag(Tags.ELEMENT);
+    }
+
+    @Benchmark
+    public ContainerView addAllElements() {
+        view.addAllElements();
+        return view;
+    }
+
+    @Benchmark
+    public ContainerView addNearestNeighbours() {
+        view.addNearestNeighbours(container);
+        return view;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import com.structurizr.model.*;
+import com.structurizr.view.ViewSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic workspaces for the benchmarks. Each software system has a fixed number of
+ * containers and components, plus a person that uses it; component relationships are picked at
+ * random using a fixed seed, so the same parameters always generate the same workspace.
+ */
+public final class SyntheticWorkspace {
+
+    static final int CONTAINERS_PER_SOFTWARE_SYSTEM = 5;
+    static final int COMPONENTS_PER_CONTAINER = 10;
+
+    /** a person, a software system, its containers and their components */
+    private static final int ELEMENTS_PER_SOFTWARE_SYSTEM = 2 + CONTAINERS_PER_SOFTWARE_SYSTEM + (CONTAINERS_PER_SOFTWARE_SYSTEM * COMPONENTS_PER_CONTAINER);
+
+    private static final long SEED = 42;
+
+    private SyntheticWorkspace() {
+    }
+
+    /**
+     * Creates a workspace.
+     *
+     * @param elements                      the approximate number of elements
+     * @param relationshipsPerComponent     the number of (randomly chosen) outgoing relationships per component
+     * @param views                         the number of views, spread over system context, container and component views
+     * @param addImplicitRelationships      whether to add the implied relationships
+     * @return  a Workspace object
+     */
+    public static Workspace create(int elements, double relationshipsPerComponent, int views, boolean addImplicitRelationships) {
+        Workspace workspace = new Workspace("Synthetic", "A synthetic workspace with " + elements + " elements.");
+        Model model = workspace.getModel();
+        Random random = new Random(SEED);
+
+        List<SoftwareSystem> softwareSystems = new ArrayList<>();
+        List<Component> components = new ArrayList<>();
+
+        int numberOfSoftwareSystems = Math.max(1, elements / ELEMENTS_PER_SOFTWARE_SYSTEM);
+        for (int s = 0; s < numberOfSoftwareSystems; s++) {
+            SoftwareSystem softwareSystem = model.addSoftwareSystem(Location.Internal, "Software System " + s, "Description of software system " + s);
+            softwareSystem.addTags("Group " + (s % 10));
+            softwareSystems.add(softwareSystem);
+
+            for (int c = 0; c < CONTAINERS_PER_SOFTWARE_SYSTEM; c++) {
+                Container container = softwareSystem.addContainer("Container " + c, "Description of container " + c, c % 2 == 0 ? "Java" : "Database");
+                for (int k = 0; k < COMPONENTS_PER_CONTAINER; k++) {
+                    components.add(container.addComponent("Component " + k, "com.example.s" + s + ".c" + c + ".Component" + k, "Description of component " + k, "Spring Bean"));
+                }
+            }
+        }
+
+        for (int s = 0; s < numberOfSoftwareSystems; s++) {
+            Person person = model.addPerson(Location.External, "Person " + s, "Description of person " + s);
+            person.uses(softwareSystems.get(random.nextInt(numberOfSoftwareSystems)), "Uses");
+        }
+
+        long numberOfRelationships = Math.round(components.size() * relationshipsPerComponent);
+        for (long r = 0; r < numberOfRelationships; r++) {
+            Component source = components.get(random.nextInt(components.size()));
+            Component destination = components.get(random.nextInt(components.size()));
+            if (source != destination) {
+                source.uses(destination, "Calls", "HTTPS");
+            }
+        }
+
+        if (addImplicitRelationships) {
+            model.addImplicitRelationships();
+        }
+
+        ViewSet viewSet = workspace.getViews();
+        for (int v = 0; v < views; v++) {
+            SoftwareSystem softwareSystem = softwareSystems.get(v % numberOfSoftwareSystems);
+            switch (v % 3) {
+                case 0:
+                    viewSet.createSystemContextView(softwareSystem, "SystemContext" + v, "").addNearestNeighbours(softwareSystem);
+                    break;
+                case 1:
+                    viewSet.createContainerView(softwareSystem, "Containers" + v, "").addAllContainers();
+                    break;
+                default:
+                    Container container = softwareSystem.getContainers().iterator().next();
+                    viewSet.createComponentView(container, "Components" + v, "").addAllComponents();
+            }
+        }
+
+        return workspace;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.structurizr.benchmarks;
+
+import com.structurizr.Workspace;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The parameters and JMH settings shared by all of the benchmarks that run against a synthetic workspace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class WorkspaceBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int elements;
+
+    @Param({ "2", "8" })
+    public double relationshipsPerComponent;
+
+    @Param({ "30" })
+    public int views;
+
+    protected Workspace createWorkspace(boolean addImplicitRelationships) {
+        return SyntheticWorkspace.create(elements, relationshipsPerComponent, views, addImplicitRelationships);
+    }
+
+}
@@ -10,6 +10,8 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Represents a Structurizr workspace, which is a wrapper for a
@@ -61,8 +63,11 @@ public final class Workspace extends AbstractWorkspace {
         this.documentation.setModel(model);
 
         this.model.hydrate();
+
+        // views and documentation only read from the model, so hydrate them concurrently
+        ForkJoinTask<?> documentationHydration = ForkJoinPool.commonPool().submit(documentation::hydrate);
         this.viewSet.hydrate();
-        this.documentation.hydrate();
+        documentationHydration.join();
     }
 
     /**
@@ -98,27 +103,27 @@ public final class Workspace extends AbstractWorkspace {
         final List<String> warnings = new LinkedList<>();
 
         // find elements with a missing description
-        getModel().getElements().stream()
+        getModel().getUnmodifiableElements().stream()
                 .filter(e -> !(e instanceof ContainerInstance))
                 .filter(e -> e.getDescription() == null || e.getDescription().trim().length() == 0)
                 .forEach(e -> warnings.add("The " + typeof(e) + " \"" + e.getCanonicalName().substring(1) + "\" is missing a description."));
 
         // find containers with a missing technology
-        getModel().getElements().stream()
+        getModel().getUnmodifiableElements().stream()
                 .filter(e -> e instanceof Container)
                 .map(e -> (Container)e)
                 .filter(c -> c.getTechnology() == null || c.getTechnology().trim().length() == 0)
                 .forEach(c -> warnings.add("The container \"" + c.getCanonicalName().substring(1) + "\" is missing a technology."));
 
         // find components with a missing technology
-        getModel().getElements().stream()
+        getModel().getUnmodifiableElements().stream()
                 .filter(e -> e instanceof Component)
                 .map(e -> (Component)e)
                 .filter(c -> c.getTechnology() == null || c.getTechnology().trim().length() == 0)
                 .forEach(c -> warnings.add("The component \"" + c.getCanonicalName().substring(1) + "\" is missing a technology."));
 
         // find component relationships with a missing description
-        for (Relationship relationship : getModel().getRelationships()) {
+        for (Relationship relationship : getModel().getUnmodifiableRelationships()) {
             if (relationship.getSource() instanceof Component && relationship.getDestination() instanceof Component &&
                     relationship.getSource().getParent().equals(relationship.getDestination().getParent())) {
                 // ignore component-component relationships inside the same container because these are
@@ -132,19 +137,19 @@ public final class Workspace extends AbstractWorkspace {
         }
 
         // diagram keys have not been specified
-        getViews().getEnterpriseContextViews().stream()
+        getViews().getUnmodifiableEnterpriseContextViews().stream()
                 .filter(v -> v.getKey() == null)
                 .forEach(v -> warnings.add("Enterprise Context view \"" + v.getName() + "\": Missing key"));
-        getViews().getSystemContextViews().stream()
+        getViews().getUnmodifiableSystemContextViews().stream()
                 .filter(v -> v.getKey() == null)
                 .forEach(v -> warnings.add("System Context view \"" + v.getName() + "\": Missing key"));
-        getViews().getContainerViews().stream()
+        getViews().getUnmodifiableContainerViews().stream()
                 .filter(v -> v.getKey() == null)
                 .forEach(v -> warnings.add("Container view \"" + v.getName() + "\": Missing key"));
-        getViews().getComponentViews().stream()
+        getViews().getUnmodifiableComponentViews().stream()
                 .filter(v -> v.getKey() == null)
                 .forEach(v -> warnings.add("Component view \"" + v.getName() + "\": Missing key"));
-        getViews().getDynamicViews().stream()
+        getViews().getUnmodifiableDynamicViews().stream()
                 .filter(v -> v.getKey() == null)
                 .forEach(v -> warnings.add("Dynamic view \"" + v.getName() + "\": Missing key"));
 
@@ -1,7 +1,6 @@
 package com.structurizr.api;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.structurizr.io.json.JsonSerializationContext;
 
 final class ApiError {
 
@@ -19,9 +18,7 @@ final class ApiError {
     }
 
     static ApiError parse(String json) throws Exception {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
-        return objectMapper.readValue(json, ApiError.class);
+        return JsonSerializationContext.getReader(ApiError.class).readValue(json);
     }
 
 }
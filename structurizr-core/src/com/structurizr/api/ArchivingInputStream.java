@@ -0,0 +1,101 @@
+package com.structurizr.api;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+
+/**
+ * An input stream that writes a copy of everything read from it to a file, so that a response
+ * can be archived while it's being parsed. If the file can't be written, a warning is logged
+ * and reading continues without archiving.
+ */
+final class ArchivingInputStream extends FilterInputStream {
+
+    private static final Log log = LogFactory.getLog(ArchivingInputStream.class);
+
+    private final File archiveFile;
+    private OutputStream archive;
+
+    ArchivingInputStream(InputStream in, File archiveFile) {
+        super(in);
+
+        this.archiveFile = archiveFile;
+        try {
+            this.archive = new BufferedOutputStream(new FileOutputStream(archiveFile));
+        } catch (IOException ioe) {
+            stopArchiving();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1 && archive != null) {
+            try {
+                archive.write(b);
+            } catch (IOException ioe) {
+                stopArchiving();
+            }
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0 && archive != null) {
+            try {
+                archive.write(b, off, n);
+            } catch (IOException ioe) {
+                stopArchiving();
+            }
+        }
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes would be missing from the archive, so read them instead
+        byte[] skipped = new byte[(int)Math.min(n, 8192)];
+        int read = read(skipped, 0, skipped.length);
+        return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (archive != null) {
+                try {
+                    archive.close();
+                    log.debug("Workspace from server archived to " + archiveFile.getAbsolutePath());
+                } catch (IOException ioe) {
+                    log.warn("Could not archive JSON to " + archiveFile.getAbsolutePath());
+                }
+                archive = null;
+            }
+        }
+    }
+
+    private void stopArchiving() {
+        log.warn("Could not archive JSON to " + archiveFile.getAbsolutePath());
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException ioe) {
+                // ignore, since archiving has already failed
+            }
+            archive = null;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.structurizr.api;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A pool of keep-alive HTTP connections, shared by all {@link StructurizrClient} instances that haven't
+ * been given their own HTTP client. Reusing connections means that a TLS handshake isn't needed for
+ * every request. Timeouts, proxies and proxy credentials are set per request, so they don't need
+ * separate pools.
+ */
+final class HttpClientPool {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 5;
+
+    // used when the server doesn't say how long an idle connection can be kept for
+    private static final long DEFAULT_KEEP_ALIVE_IN_MILLISECONDS = 30 * 1000;
+
+    private static PoolingHttpClientConnectionManager connectionManager;
+    private static CloseableHttpClient httpClient;
+
+    private HttpClientPool() {
+    }
+
+    static synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(getConnectionManager())
+                    .setKeepAliveStrategy(new KeepAliveStrategy())
+                    .disableContentCompression() // StructurizrClient handles gzip content itself
+                    .useSystemProperties()
+                    .build();
+        }
+
+        return httpClient;
+    }
+
+    static synchronized void setMaxConnections(int maxConnections, int maxConnectionsPerRoute) {
+        if (maxConnections < 1 || maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be greater than zero.");
+        }
+
+        getConnectionManager().setMaxTotal(maxConnections);
+        getConnectionManager().setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    }
+
+    private static PoolingHttpClientConnectionManager getConnectionManager() {
+        if (connectionManager == null) {
+            connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(DEFAULT_MAX_CONNECTIONS);
+            connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        }
+
+        return connectionManager;
+    }
+
+    /**
+     * Honours the "Keep-Alive: timeout=n" response header, and otherwise keeps connections alive
+     * for a bounded time (rather than indefinitely) so that connections dropped by proxies aren't reused.
+     */
+    private static final class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement headerElement = it.nextElement();
+                if ("timeout".equalsIgnoreCase(headerElement.getName()) && headerElement.getValue() != null) {
+                    try {
+                        return Long.parseLong(headerElement.getValue()) * 1000;
+                    } catch (NumberFormatException nfe) {
+                        // ignore the header, and use the default
+                    }
+                }
+            }
+
+            return DEFAULT_KEEP_ALIVE_IN_MILLISECONDS;
+        }
+
+    }
+
+}
@@ -7,5 +7,7 @@ final class HttpHeaders {
     static final String CONTENT_TYPE = "Content-Type";
     static final String CONTENT_MD5 = "Content-MD5";
     static final String NONCE = "Nonce";
+    static final String ACCEPT_ENCODING = "Accept-Encoding";
+    static final String CONTENT_ENCODING = "Content-Encoding";
 
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.structurizr.api;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A request entity containing JSON, which is written (and optionally gzip compressed) straight into
+ * a byte buffer that is then sent as-is. The MD5 digest of the JSON is calculated as it's written,
+ * since it's needed for the request headers before the content can be sent.
+ */
+final class JsonRequestEntity extends AbstractHttpEntity {
+
+    private final Buffer buffer = new Buffer();
+    private final String contentMd5;
+
+    /**
+     * @param content   writes the JSON to a Writer (which it needn't close)
+     * @param compress  true if the content should be gzip compressed, false otherwise
+     */
+    JsonRequestEntity(Content content, boolean compress) throws Exception {
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        if (compress) {
+            setContentEncoding("gzip");
+        }
+
+        Md5Digest md5Digest = new Md5Digest();
+        MessageDigest digest = md5Digest.createMessageDigest();
+
+        // the digest is of the JSON itself, rather than the compressed content
+        OutputStream out = compress ? new GZIPOutputStream(buffer) : buffer;
+        try (Writer writer = new OutputStreamWriter(new DigestOutputStream(out, digest), StandardCharsets.UTF_8)) {
+            content.write(writer);
+        }
+
+        this.contentMd5 = md5Digest.format(digest);
+    }
+
+    /**
+     * Gets the MD5 digest of the JSON, as a lowercase hex string.
+     */
+    String getContentMd5() {
+        return contentMd5;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return buffer.size();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return buffer.toInputStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        buffer.writeTo(out);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    interface Content {
+
+        void write(Writer writer) throws Exception;
+
+    }
+
+    /**
+     * A ByteArrayOutputStream that can be read without copying its contents.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        private Buffer() {
+            super(64 * 1024);
+        }
+
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+    }
+
+}
@@ -2,6 +2,7 @@ package com.structurizr.api;
 
 import javax.xml.bind.DatatypeConverter;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 final class Md5Digest {
 
@@ -12,8 +13,20 @@ final class Md5Digest {
             content = "";
         }
 
-        MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
-        return DatatypeConverter.printHexBinary(digest.digest(content.getBytes("UTF-8"))).toLowerCase();
+        MessageDigest digest = createMessageDigest();
+        digest.update(content.getBytes("UTF-8"));
+        return format(digest);
     }
 
-}
\ No newline at end of file
+    MessageDigest createMessageDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(ALGORITHM);
+    }
+
+    /**
+     * Completes the given digest, and formats it as a lowercase hex string.
+     */
+    String format(MessageDigest digest) {
+        return DatatypeConverter.printHexBinary(digest.digest()).toLowerCase();
+    }
+
+}
@@ -7,22 +7,33 @@ import com.structurizr.io.json.JsonWriter;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpStatus;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Base64;
 import java.util.Date;
 import java.util.Properties;
+import java.util.zip.GZIPInputStream;
 
 /**
  * A client for the Structurizr API (https://api.structurizr.com)
@@ -35,6 +46,13 @@ public final class StructurizrClient {
     private static final String STRUCTURIZR_API_URL = "structurizr.api.url";
     private static final String STRUCTURIZR_API_KEY = "structurizr.api.key";
     private static final String STRUCTURIZR_API_SECRET = "structurizr.api.secret";
+    private static final String STRUCTURIZR_API_PROXY_HOST = "structurizr.api.proxy.host";
+    private static final String STRUCTURIZR_API_PROXY_PORT = "structurizr.api.proxy.port";
+    private static final String STRUCTURIZR_API_PROXY_USERNAME = "structurizr.api.proxy.username";
+    private static final String STRUCTURIZR_API_PROXY_PASSWORD = "structurizr.api.proxy.password";
+
+    private static final int DEFAULT_CONNECT_TIMEOUT_IN_MILLISECONDS = 30 * 1000;
+    private static final int DEFAULT_SOCKET_TIMEOUT_IN_MILLISECONDS = 60 * 1000;
 
     private static final String WORKSPACE_PATH = "/workspace/";
 
@@ -47,16 +65,29 @@ public final class StructurizrClient {
     private EncryptionStrategy encryptionStrategy;
 
     private boolean mergeFromRemote = true;
+    private boolean compressRequests = false;
+    private boolean compressResponses = true;
     private File workspaceArchiveLocation = new File(".");
-    
+
     private CloseableHttpClient httpClient;
 
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT_IN_MILLISECONDS;
+    private int socketTimeout = DEFAULT_SOCKET_TIMEOUT_IN_MILLISECONDS;
+    private boolean timeoutsSet = false;
+    private HttpHost proxy;
+    private UsernamePasswordCredentials proxyCredentials;
+
     /**
      * Creates a new Structurizr client based upon configuration in a structurizr.properties file
      * on the classpath with the following name-value pairs:
      * - structurizr.api.url
      * - structurizr.api.key
      * - structurizr.api.secret
+     * and optionally, if requests need to go via a proxy:
+     * - structurizr.api.proxy.host
+     * - structurizr.api.proxy.port
+     * - structurizr.api.proxy.username
+     * - structurizr.api.proxy.password
      *
      * @throws StructurizrClientException   if something goes wrong
      */
@@ -69,11 +100,19 @@ public final class StructurizrClient {
                 setUrl(properties.getProperty(STRUCTURIZR_API_URL));
                 this.apiKey = properties.getProperty(STRUCTURIZR_API_KEY);
                 this.apiSecret = properties.getProperty(STRUCTURIZR_API_SECRET);
+
+                String proxyHost = properties.getProperty(STRUCTURIZR_API_PROXY_HOST);
+                if (proxyHost != null && proxyHost.trim().length() > 0) {
+                    setProxy(proxyHost.trim(),
+                            Integer.parseInt(properties.getProperty(STRUCTURIZR_API_PROXY_PORT, "-1").trim()),
+                            properties.getProperty(STRUCTURIZR_API_PROXY_USERNAME),
+                            properties.getProperty(STRUCTURIZR_API_PROXY_PASSWORD));
+                }
                 in.close();
             } else {
                 throw new StructurizrClientException("Could not find a structurizr.properties file on the classpath.");
             }
-        } catch (IOException e) {
+        } catch (IOException | NumberFormatException e) {
             log.error(e);
             throw new StructurizrClientException(e);
         }
@@ -161,6 +200,81 @@ public final class StructurizrClient {
         this.mergeFromRemote = mergeFromRemote;
     }
 
+    /**
+     * Specifies whether workspaces should be gzip compressed when they are put. This is off by default,
+     * since it requires support from the server (the Content-MD5 header is still that of the uncompressed JSON).
+     *
+     * @param compressRequests  true to compress request content, false otherwise
+     */
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    /**
+     * Specifies whether the server should be asked to gzip compress workspaces when they are got.
+     * This is on by default.
+     *
+     * @param compressResponses true to accept compressed response content, false otherwise
+     */
+    public void setCompressResponses(boolean compressResponses) {
+        this.compressResponses = compressResponses;
+    }
+
+    /**
+     * Sets the timeouts used when connecting to, and waiting for data from, the Structurizr API.
+     * A timeout of zero means no timeout; a negative timeout means the system default.
+     * If these aren't set, the default timeouts are used with the shared HTTP client, and the
+     * timeouts configured on an HTTP client set with {@link #setHttpClient(CloseableHttpClient)} are kept.
+     *
+     * @param connectTimeout    the connect timeout, in milliseconds
+     * @param socketTimeout     the socket (read) timeout, in milliseconds
+     */
+    public void setTimeouts(int connectTimeout, int socketTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.socketTimeout = socketTimeout;
+        this.timeoutsSet = true;
+    }
+
+    /**
+     * Sends requests via the given HTTP proxy. If no proxy is set, the standard
+     * http.proxyHost/https.proxyHost system properties are used (if set).
+     *
+     * @param host  the hostname of the proxy
+     * @param port  the port of the proxy
+     */
+    public void setProxy(String host, int port) {
+        setProxy(host, port, null, null);
+    }
+
+    /**
+     * Sends requests via the given HTTP proxy, authenticating with the given username and password.
+     *
+     * @param host      the hostname of the proxy
+     * @param port      the port of the proxy
+     * @param username  the username to authenticate with, or null
+     * @param password  the password to authenticate with, or null
+     */
+    public void setProxy(String host, int port, String username, String password) {
+        if (host == null || host.trim().length() == 0) {
+            throw new IllegalArgumentException("A proxy host must be specified.");
+        }
+
+        this.proxy = new HttpHost(host, port);
+        this.proxyCredentials = username != null ? new UsernamePasswordCredentials(username, password) : null;
+    }
+
+    /**
+     * Sets the size of the pool of keep-alive connections shared by all clients that don't have
+     * their own HTTP client (see {@link #setHttpClient(CloseableHttpClient)}).
+     * The defaults are 20 connections in total, and 5 per route.
+     *
+     * @param maxConnections            the maximum number of connections
+     * @param maxConnectionsPerRoute    the maximum number of connections to any one host
+     */
+    public static void setConnectionPoolSize(int maxConnections, int maxConnectionsPerRoute) {
+        HttpClientPool.setMaxConnections(maxConnections, maxConnectionsPerRoute);
+    }
+
     /**
      * Gets the workspace with the given ID.
      *
@@ -172,29 +286,29 @@ public final class StructurizrClient {
         try {
             log.info("Getting workspace with ID " + workspaceId);
 
-            //CloseableHttpClient httpClient = HttpClients.createSystem();
-            
             HttpGet httpGet = new HttpGet(url + WORKSPACE_PATH + workspaceId);
-            addHeaders(httpGet, "", "");
-            debugRequest(httpGet, null);
+            addHeaders(httpGet, new Md5Digest().generate(""), "");
+            if (compressResponses) {
+                httpGet.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            debugRequest(httpGet);
 
-            try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            try (CloseableHttpResponse response = execute(httpGet)) {
                 debugResponse(response);
 
-                String json = EntityUtils.toString(response.getEntity());
                 if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                    archiveWorkspace(workspaceId, json);
-
-                    if (encryptionStrategy == null) {
-                        return new JsonReader().read(new StringReader(json));
-                    } else {
-                        EncryptedWorkspace encryptedWorkspace = new EncryptedJsonReader().read(new StringReader(json));
-                        encryptedWorkspace.getEncryptionStrategy().setPassphrase(encryptionStrategy.getPassphrase());
-                        return encryptedWorkspace.getWorkspace();
+                    // the workspace is parsed as it's received, rather than being read into a String first
+                    try (Reader reader = createReader(response, workspaceId)) {
+                        if (encryptionStrategy == null) {
+                            return new JsonReader().read(reader);
+                        } else {
+                            EncryptedWorkspace encryptedWorkspace = new EncryptedJsonReader().read(reader);
+                            encryptedWorkspace.getEncryptionStrategy().setPassphrase(encryptionStrategy.getPassphrase());
+                            return encryptedWorkspace.getWorkspace();
+                        }
                     }
                 } else {
-                    ApiError apiError = ApiError.parse(json);
-                    throw new StructurizrClientException(apiError.getMessage());
+                    throw new StructurizrClientException(readApiError(response).getMessage());
                 }
             }
         } catch (Exception e) {
@@ -229,35 +343,31 @@ public final class StructurizrClient {
             workspace.setId(workspaceId);
             workspace.countAndLogWarnings();
 
-            //CloseableHttpClient httpClient = HttpClients.createSystem();
             HttpPut httpPut = new HttpPut(url + WORKSPACE_PATH + workspaceId);
 
-            StringWriter stringWriter = new StringWriter();
+            JsonRequestEntity entity;
             if (encryptionStrategy == null) {
                 JsonWriter jsonWriter = new JsonWriter(false);
-                jsonWriter.write(workspace, stringWriter);
+                entity = new JsonRequestEntity(writer -> jsonWriter.write(workspace, writer), compressRequests);
             } else {
                 EncryptedWorkspace encryptedWorkspace = new EncryptedWorkspace(workspace, encryptionStrategy);
                 encryptionStrategy.setLocation(EncryptionLocation.Client);
                 EncryptedJsonWriter jsonWriter = new EncryptedJsonWriter(false);
-                jsonWriter.write(encryptedWorkspace, stringWriter);
+                entity = new JsonRequestEntity(writer -> jsonWriter.write(encryptedWorkspace, writer), compressRequests);
             }
 
-            StringEntity stringEntity = new StringEntity(stringWriter.toString(), ContentType.APPLICATION_JSON);
-            httpPut.setEntity(stringEntity);
-            addHeaders(httpPut, EntityUtils.toString(stringEntity), ContentType.APPLICATION_JSON.toString());
+            httpPut.setEntity(entity);
+            addHeaders(httpPut, entity.getContentMd5(), ContentType.APPLICATION_JSON.toString());
 
-            debugRequest(httpPut, EntityUtils.toString(stringEntity));
+            debugRequest(httpPut);
 
             log.info("Putting workspace with ID " + workspaceId);
-            try (CloseableHttpResponse response = getHttpClient().execute(httpPut)) {
-                String json = EntityUtils.toString(response.getEntity());
+            try (CloseableHttpResponse response = execute(httpPut)) {
                 if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
                     debugResponse(response);
-                    log.info(json);
+                    log.info(EntityUtils.toString(response.getEntity()));
                 } else {
-                    ApiError apiError = ApiError.parse(json);
-                    throw new StructurizrClientException(apiError.getMessage());
+                    throw new StructurizrClientException(readApiError(response).getMessage());
                 }
             }
         } catch (Exception e) {
@@ -266,15 +376,52 @@ public final class StructurizrClient {
         }
     }
 
-    private void debugRequest(HttpRequestBase httpRequest, String content) {
+    private CloseableHttpResponse execute(HttpRequestBase httpRequest) throws IOException {
+        CloseableHttpClient httpClient = getHttpClient();
+
+        // an injected client keeps its own timeouts unless they've been set explicitly; a request config
+        // replaces the client's default config entirely, so one is only set when there's something to apply
+        boolean applyTimeouts = this.httpClient == null || timeoutsSet;
+        if (applyTimeouts || proxy != null) {
+            // start from the client's own configuration where it's available
+            RequestConfig defaultRequestConfig = RequestConfig.DEFAULT;
+            if (httpClient instanceof Configurable && ((Configurable)httpClient).getConfig() != null) {
+                defaultRequestConfig = ((Configurable)httpClient).getConfig();
+            }
+
+            RequestConfig.Builder requestConfig = RequestConfig.copy(defaultRequestConfig);
+            if (applyTimeouts) {
+                requestConfig
+                        .setConnectTimeout(connectTimeout)
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setSocketTimeout(socketTimeout);
+            }
+            if (proxy != null) {
+                requestConfig.setProxy(proxy);
+            }
+
+            httpRequest.setConfig(requestConfig.build());
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        if (proxy != null && proxyCredentials != null) {
+            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+            credentialsProvider.setCredentials(new AuthScope(proxy), proxyCredentials);
+            context.setCredentialsProvider(credentialsProvider);
+        }
+
+        return httpClient.execute(httpRequest, context);
+    }
+
+    private void debugRequest(HttpRequestBase httpRequest) {
         log.debug(httpRequest.getMethod() + " " + httpRequest.getURI().getPath());
         Header[] headers = httpRequest.getAllHeaders();
         for (Header header : headers) {
             log.debug(header.getName() + ": " + header.getValue());
         }
 
-        if (content != null) {
-            log.debug(content);
+        if (httpRequest instanceof HttpEntityEnclosingRequest) {
+            log.debug(((HttpEntityEnclosingRequest)httpRequest).getEntity().getContentLength() + " bytes of content");
         }
     }
 
@@ -282,10 +429,9 @@ public final class StructurizrClient {
         log.debug(response.getStatusLine());
     }
 
-    private void addHeaders(HttpRequestBase httpRequest, String content, String contentType) throws Exception {
+    private void addHeaders(HttpRequestBase httpRequest, String contentMd5, String contentType) throws Exception {
         String httpMethod = httpRequest.getMethod();
         String path = httpRequest.getURI().getPath();
-        String contentMd5 = new Md5Digest().generate(content);
         String nonce = "" + System.currentTimeMillis();
 
         HashBasedMessageAuthenticationCode hmac = new HashBasedMessageAuthenticationCode(apiSecret);
@@ -297,26 +443,44 @@ public final class StructurizrClient {
         httpRequest.addHeader(HttpHeaders.CONTENT_TYPE, contentType);
     }
 
-    private void archiveWorkspace(long workspaceId, String json) {
-        if (this.workspaceArchiveLocation == null) {
-            return;
+    /**
+     * Creates a reader over the (decompressed, if necessary) content of the response,
+     * which also archives the content if a workspace archive location has been set.
+     */
+    private Reader createReader(CloseableHttpResponse response, long workspaceId) throws IOException {
+        InputStream in = openContent(response);
+        if (this.workspaceArchiveLocation != null) {
+            in = new ArchivingInputStream(in, new File(workspaceArchiveLocation, createArchiveFileName(workspaceId)));
         }
 
-        File archiveFile = new File(workspaceArchiveLocation, createArchiveFileName(workspaceId));
-        try {
-            FileWriter fileWriter = new FileWriter(archiveFile);
-            fileWriter.write(json);
-            fileWriter.flush();
-            fileWriter.close();
-
-            try {
-                log.debug("Workspace from server archived to " + archiveFile.getCanonicalPath());
-            } catch (IOException ioe) {
-                log.debug("Workspace from server archived to " + archiveFile.getAbsolutePath());
+        Charset charset = ContentType.getOrDefault(response.getEntity()).getCharset();
+        return new InputStreamReader(in, charset != null ? charset : StandardCharsets.UTF_8);
+    }
+
+    private InputStream openContent(CloseableHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        InputStream in = entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+
+        // the HTTP client may have decompressed the content already, in which case this header will have been removed
+        Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.getValue())) {
+            in = new GZIPInputStream(in);
+        }
+
+        return in;
+    }
+
+    private ApiError readApiError(CloseableHttpResponse response) throws Exception {
+        StringWriter json = new StringWriter();
+        try (Reader reader = new InputStreamReader(openContent(response), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[4096];
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                json.write(buffer, 0, n);
             }
-        } catch (Exception e) {
-            log.warn("Could not archive JSON to " + archiveFile.getAbsolutePath());
         }
+
+        return ApiError.parse(json.toString());
     }
 
     private String createArchiveFileName(long workspaceId) {
@@ -325,13 +489,20 @@ public final class StructurizrClient {
     }
 
     /**
+     * Gets the HTTP client used to make requests; either the one set with {@link #setHttpClient(CloseableHttpClient)},
+     * or the one with a pool of keep-alive connections shared by all clients.
+     *
      * @return the httpClient
      */
     public CloseableHttpClient getHttpClient() {
-        return httpClient;
+        return httpClient != null ? httpClient : HttpClientPool.getHttpClient();
     }
 
     /**
+     * Sets the HTTP client used to make requests, instead of the shared one. The proxy configured on this
+     * client is still applied to each request, as are the timeouts if they've been set explicitly
+     * with {@link #setTimeouts(int, int)}; otherwise the HTTP client's own timeouts are used.
+     *
      * @param httpClient the httpClient to set
      */
     public void setHttpClient(CloseableHttpClient httpClient) {
@@ -82,7 +82,7 @@ public class StructurizrAnnotationsComponentFinderStrategy extends AbstractRefle
                 String description = field.getAnnotation(UsesComponent.class).description();
 
                 Component destination = componentFinder.getContainer().getComponentOfType(name);
-                for (Relationship relationship : component.getRelationships()) {
+                for (Relationship relationship : component.getUnmodifiableRelationships()) {
                     if (relationship.getDestination() == destination) {
                         relationship.setDescription(description);
                     }
@@ -1,16 +1,14 @@
 package com.structurizr.encryption;
 
 import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
-import java.security.NoSuchAlgorithmException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.Base64;
 
 /**
@@ -61,31 +59,43 @@ public final class AesEncryptionStrategy extends EncryptionStrategy {
     }
 
     public String encrypt(String plaintext) throws Exception {
-        SecretKey secretKey = createSecretKey();
+        Cipher cipher = createCipher(Cipher.ENCRYPT_MODE);
 
-        Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
-        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
-
-        byte[] byteDataToEncrypt = plaintext.getBytes();
+        byte[] byteDataToEncrypt = plaintext.getBytes(StandardCharsets.UTF_8);
         byte[] byteCipherText = cipher.doFinal(byteDataToEncrypt);
 
         return Base64.getEncoder().encodeToString(byteCipherText);
     }
 
     public String decrypt(String ciphertext) throws Exception {
-        SecretKey secretKey = createSecretKey();
-
-        Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
-        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
+        Cipher cipher = createCipher(Cipher.DECRYPT_MODE);
         byte[] unencrypted = cipher.doFinal(Base64.getDecoder().decode(ciphertext));
 
-        return new String(unencrypted, "UTF-8");
+        return new String(unencrypted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an output stream that encrypts the plaintext written to it as it goes, writing the Base64
+     * encoded ciphertext to the given output stream. This produces the same ciphertext as {@link #encrypt(String)}.
+     */
+    @Override
+    public OutputStream createEncryptingStream(OutputStream ciphertext) throws Exception {
+        return new CipherOutputStream(Base64.getEncoder().wrap(new UnclosableOutputStream(ciphertext)), createCipher(Cipher.ENCRYPT_MODE));
+    }
+
+    /**
+     * Creates an input stream that decodes and decrypts the given ciphertext as it's read.
+     */
+    @Override
+    public InputStream createDecryptingStream(InputStream ciphertext) throws Exception {
+        return new CipherInputStream(Base64.getDecoder().wrap(ciphertext), createCipher(Cipher.DECRYPT_MODE));
     }
 
-    private SecretKey createSecretKey() throws NoSuchAlgorithmException, InvalidKeySpecException {
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
-        KeySpec spec = new PBEKeySpec(getPassphrase().toCharArray(), DatatypeConverter.parseHexBinary(salt), iterationCount, keySize);
-        return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+    private Cipher createCipher(int mode) throws Exception {
+        Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
+        cipher.init(mode, SecretKeys.getAesKey(getPassphrase(), salt, iterationCount, keySize), new IvParameterSpec(DatatypeConverter.parseHexBinary(iv)));
+
+        return cipher;
     }
 
     public int getKeySize() {
@@ -0,0 +1,278 @@
+package com.structurizr.encryption;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.xml.bind.DatatypeConverter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * An authenticated encryption strategy that splits the plaintext into fixed-size chunks, and
+ * encrypts each chunk independently (in parallel) with AES-GCM and its own random nonce.
+ * The key is derived from the passphrase in the same way as {@link AesEncryptionStrategy}.
+ * </p>
+ *
+ * <p>
+ * The ciphertext is a random message ID followed by the chunks (nonce followed by the GCM ciphertext
+ * and tag), all Base64 encoded and separated by '.' characters. Each chunk is authenticated along with
+ * the message ID, its index and whether it's the last chunk, so chunks can't be reordered, dropped,
+ * truncated or swapped with those from another ciphertext without decryption failing.
+ * Since all but the last chunk are the same size, an individual chunk can be found (and decrypted)
+ * without reading the others; see {@link #decryptChunk(String, int)}.
+ * </p>
+ */
+public final class ChunkedAesGcmEncryptionStrategy extends EncryptionStrategy {
+
+    private static final String CIPHER_SPECIFICATION = "AES/GCM/NoPadding";
+    private static final int NONCE_SIZE_IN_BYTES = 12;
+    private static final int MESSAGE_ID_SIZE_IN_BYTES = 16;
+    private static final int TAG_SIZE_IN_BITS = 128;
+    private static final char CHUNK_SEPARATOR = '.';
+
+    private static final int DEFAULT_CHUNK_SIZE_IN_BYTES = 256 * 1024;
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private int keySize;
+    private int iterationCount;
+    private int chunkSize;
+    private String salt;
+
+    ChunkedAesGcmEncryptionStrategy() {
+    }
+
+    public ChunkedAesGcmEncryptionStrategy(String passphrase) {
+        this(128, 1000, DEFAULT_CHUNK_SIZE_IN_BYTES, passphrase);
+    }
+
+    public ChunkedAesGcmEncryptionStrategy(int keySize, int iterationCount, int chunkSize, String passphrase) {
+        this(keySize, iterationCount, chunkSize, createSalt(keySize), passphrase);
+    }
+
+    public ChunkedAesGcmEncryptionStrategy(int keySize, int iterationCount, int chunkSize, String salt, String passphrase) {
+        super(passphrase);
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be greater than zero.");
+        }
+
+        this.keySize = keySize;
+        this.iterationCount = iterationCount;
+        this.chunkSize = chunkSize;
+        this.salt = salt;
+    }
+
+    private static String createSalt(int keySize) {
+        byte[] saltAsBytes = new byte[keySize / 8];
+        secureRandom.nextBytes(saltAsBytes);
+
+        return DatatypeConverter.printHexBinary(saltAsBytes);
+    }
+
+    @Override
+    public String encrypt(String plaintext) throws Exception {
+        SecretKey secretKey = getSecretKey();
+        byte[] bytes = plaintext.getBytes(StandardCharsets.UTF_8);
+        int numberOfChunks = (int)Math.max(1, ((long)bytes.length + chunkSize - 1) / chunkSize);
+
+        byte[] messageId = new byte[MESSAGE_ID_SIZE_IN_BYTES];
+        secureRandom.nextBytes(messageId);
+
+        try {
+            return Base64.getEncoder().encodeToString(messageId) + CHUNK_SEPARATOR + IntStream.range(0, numberOfChunks)
+                    .parallel()
+                    .mapToObj(i -> encryptChunk(secretKey, messageId, bytes, i, i == numberOfChunks - 1))
+                    .collect(Collectors.joining(String.valueOf(CHUNK_SEPARATOR)));
+        } catch (ChunkException ce) {
+            throw ce.getCause();
+        }
+    }
+
+    @Override
+    public String decrypt(String ciphertext) throws Exception {
+        SecretKey secretKey = getSecretKey();
+        String[] parts = ciphertext.split("\\" + CHUNK_SEPARATOR);
+        if (parts.length < 2) {
+            throw new GeneralSecurityException("The ciphertext has no chunks.");
+        }
+
+        byte[] messageId = decodeMessageId(parts[0]);
+        int numberOfChunks = parts.length - 1;
+
+        byte[][] plaintext;
+        try {
+            plaintext = IntStream.range(0, numberOfChunks)
+                    .parallel()
+                    .mapToObj(i -> decryptChunk(secretKey, messageId, parts[i + 1], i, i == numberOfChunks - 1))
+                    .toArray(byte[][]::new);
+        } catch (ChunkException ce) {
+            throw ce.getCause();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Arrays.stream(plaintext).mapToInt(chunk -> chunk.length).sum());
+        for (byte[] chunk : plaintext) {
+            buffer.put(chunk);
+        }
+
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of chunks in the given ciphertext.
+     *
+     * @param ciphertext    ciphertext produced by this strategy
+     * @return  the number of chunks
+     */
+    public int getNumberOfChunks(String ciphertext) {
+        // the message ID is followed by a separator, so there are as many chunks as separators
+        int numberOfChunks = 0;
+        for (int i = 0; i < ciphertext.length(); i++) {
+            if (ciphertext.charAt(i) == CHUNK_SEPARATOR) {
+                numberOfChunks++;
+            }
+        }
+
+        return numberOfChunks;
+    }
+
+    /**
+     * Decrypts a single chunk of the given ciphertext, without decrypting the others. Since chunks are
+     * a fixed number of bytes, a chunk may start or end part way through a multi-byte UTF-8 character.
+     *
+     * @param ciphertext    ciphertext produced by this strategy
+     * @param index         the index of the chunk, starting at zero
+     * @return  the plaintext bytes of the chunk
+     * @throws Exception    if the chunk can't be found or decrypted (e.g. it's been tampered with)
+     */
+    public byte[] decryptChunk(String ciphertext, int index) throws Exception {
+        // the message ID is a fixed length, as is every chunk other than the last
+        int headerLength = (int)base64Length(MESSAGE_ID_SIZE_IN_BYTES) + 1;
+        long chunkLength = base64Length((long)NONCE_SIZE_IN_BYTES + chunkSize + TAG_SIZE_IN_BITS / 8) + 1;
+        long start = headerLength + index * chunkLength;
+        if (index < 0 || start >= ciphertext.length()) {
+            throw new IllegalArgumentException("There is no chunk with index " + index + ".");
+        }
+
+        byte[] messageId = decodeMessageId(ciphertext.substring(0, headerLength - 1));
+        int end = ciphertext.indexOf(CHUNK_SEPARATOR, (int)start);
+        boolean last = end == -1;
+
+        try {
+            return decryptChunk(getSecretKey(), messageId, ciphertext.substring((int)start, last ? ciphertext.length() : end), index, last);
+        } catch (ChunkException ce) {
+            throw ce.getCause();
+        }
+    }
+
+    private static byte[] decodeMessageId(String encodedMessageId) throws GeneralSecurityException {
+        try {
+            byte[] messageId = Base64.getDecoder().decode(encodedMessageId);
+            if (messageId.length == MESSAGE_ID_SIZE_IN_BYTES) {
+                return messageId;
+            }
+        } catch (IllegalArgumentException iae) {
+            // fall through
+        }
+
+        throw new GeneralSecurityException("The ciphertext doesn't start with a valid message ID.");
+    }
+
+    private String encryptChunk(SecretKey secretKey, byte[] messageId, byte[] plaintext, int index, boolean last) {
+        try {
+            byte[] nonce = new byte[NONCE_SIZE_IN_BYTES];
+            secureRandom.nextBytes(nonce);
+
+            Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_SIZE_IN_BITS, nonce));
+            cipher.updateAAD(getAssociatedData(messageId, index, last));
+
+            int offset = (int)((long)index * chunkSize);
+            int length = Math.min(chunkSize, plaintext.length - offset);
+            byte[] chunk = new byte[NONCE_SIZE_IN_BYTES + cipher.getOutputSize(length)];
+            System.arraycopy(nonce, 0, chunk, 0, NONCE_SIZE_IN_BYTES);
+            cipher.doFinal(plaintext, offset, length, chunk, NONCE_SIZE_IN_BYTES);
+
+            return Base64.getEncoder().encodeToString(chunk);
+        } catch (GeneralSecurityException gse) {
+            throw new ChunkException(gse);
+        }
+    }
+
+    private byte[] decryptChunk(SecretKey secretKey, byte[] messageId, String ciphertext, int index, boolean last) {
+        try {
+            byte[] chunk;
+            try {
+                chunk = Base64.getDecoder().decode(ciphertext);
+            } catch (IllegalArgumentException iae) {
+                // e.g. the ciphertext has been truncated part way through a chunk
+                throw new GeneralSecurityException("Chunk " + index + " isn't valid Base64.", iae);
+            }
+            if (chunk.length < NONCE_SIZE_IN_BYTES) {
+                throw new GeneralSecurityException("Chunk " + index + " is too short.");
+            }
+
+            Cipher cipher = Cipher.getInstance(CIPHER_SPECIFICATION);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_SIZE_IN_BITS, chunk, 0, NONCE_SIZE_IN_BYTES));
+            cipher.updateAAD(getAssociatedData(messageId, index, last));
+
+            return cipher.doFinal(chunk, NONCE_SIZE_IN_BYTES, chunk.length - NONCE_SIZE_IN_BYTES);
+        } catch (GeneralSecurityException gse) {
+            throw new ChunkException(gse);
+        }
+    }
+
+    private static byte[] getAssociatedData(byte[] messageId, int index, boolean last) {
+        return ByteBuffer.allocate(MESSAGE_ID_SIZE_IN_BYTES + 5).put(messageId).putInt(index).put((byte)(last ? 1 : 0)).array();
+    }
+
+    private static long base64Length(long numberOfBytes) {
+        return 4 * ((numberOfBytes + 2) / 3);
+    }
+
+    private SecretKey getSecretKey() throws GeneralSecurityException {
+        return SecretKeys.getAesKey(getPassphrase(), salt, iterationCount, keySize);
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public String getSalt() {
+        return salt;
+    }
+
+    /**
+     * Carries a checked exception out of the parallel stream that encrypts/decrypts the chunks.
+     */
+    private static final class ChunkException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private ChunkException(GeneralSecurityException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized GeneralSecurityException getCause() {
+            return (GeneralSecurityException)super.getCause();
+        }
+
+    }
+
+}
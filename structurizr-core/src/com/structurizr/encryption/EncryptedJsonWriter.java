@@ -1,10 +1,9 @@
 package com.structurizr.encryption;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.structurizr.io.WorkspaceWriterException;
+import com.structurizr.io.json.JsonSerializationContext;
 
+import java.io.BufferedWriter;
 import java.io.Writer;
 
 public final class EncryptedJsonWriter {
@@ -17,6 +16,7 @@ public final class EncryptedJsonWriter {
 
     /**
      * Writes an encrypted workspace definition as a JSON string to the specified Writer object.
+     * The writer is flushed, but not closed.
      *
      * @param workspace     the Workspace object to write
      * @param writer        the Writer object to write the workspace to
@@ -31,14 +31,9 @@ public final class EncryptedJsonWriter {
         }
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            if (indentOutput) {
-                objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-            }
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
-
-            writer.write(objectMapper.writeValueAsString(workspace));
+            BufferedWriter bufferedWriter = new BufferedWriter(writer);
+            JsonSerializationContext.getWriter(indentOutput).writeValue(bufferedWriter, workspace);
+            bufferedWriter.flush();
         } catch (Exception e) {
             throw new WorkspaceWriterException("Could not write as JSON", e);
         }
@@ -3,11 +3,14 @@ package com.structurizr.encryption;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.structurizr.AbstractWorkspace;
 import com.structurizr.Workspace;
+import com.structurizr.io.WorkspaceReaderException;
 import com.structurizr.io.json.JsonReader;
 import com.structurizr.io.json.JsonWriter;
 
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 
 /**
  * This is a wrapper around an existing workspace that has been encrypted.
@@ -20,22 +23,32 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
 
     private EncryptionStrategy encryptionStrategy;
 
+    // the results of decrypting the ciphertext, which are discarded if the ciphertext or encryption strategy change
+    private volatile Workspace decryptedWorkspace;
+    private SoftReference<String> decryptedPlaintext;
+    private boolean retainPlaintext = false;
+
     EncryptedWorkspace() {
     }
 
     public EncryptedWorkspace(Workspace workspace, EncryptionStrategy encryptionStrategy) throws Exception {
-        JsonWriter jsonWriter = new JsonWriter(false);
-        StringWriter stringWriter = new StringWriter();
-        jsonWriter.write(workspace, stringWriter);
+        // the JSON is encrypted as it's written, rather than being held as plaintext first
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        try (OutputStream plaintext = encryptionStrategy.createEncryptingStream(ciphertext)) {
+            new JsonWriter(false).write(workspace, plaintext);
+        }
 
-        init(workspace, stringWriter.toString(), encryptionStrategy);
+        init(workspace, encryptionStrategy);
+        this.ciphertext = new String(ciphertext.toByteArray(), StandardCharsets.US_ASCII);
     }
 
     public EncryptedWorkspace(Workspace workspace, String plaintext, EncryptionStrategy encryptionStrategy) throws Exception {
-        init(workspace, plaintext, encryptionStrategy);
+        init(workspace, encryptionStrategy);
+        this.plaintext = plaintext;
+        this.ciphertext = encryptionStrategy.encrypt(plaintext);
     }
 
-    private void init(Workspace workspace, String plaintext, EncryptionStrategy encryptionStrategy) throws Exception {
+    private void init(Workspace workspace, EncryptionStrategy encryptionStrategy) {
         this.workspace = workspace;
 
         setId(workspace.getId());
@@ -46,22 +59,56 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         setSource(workspace.getSource());
         setApi(workspace.getApi());
 
-        this.plaintext = plaintext;
-        this.ciphertext = encryptionStrategy.encrypt(plaintext);
         this.encryptionStrategy = encryptionStrategy;
     }
 
+    /**
+     * Gets the workspace. If this object was created from encrypted JSON, the ciphertext is decrypted
+     * and parsed the first time this is called, and the same Workspace is returned thereafter.
+     *
+     * @return  a Workspace object, or null if there is no ciphertext
+     * @throws Exception    if the ciphertext can't be decrypted or parsed
+     */
     @JsonIgnore
     public Workspace getWorkspace() throws Exception {
         if (this.workspace != null) {
             return this.workspace;
-        } else if (this.ciphertext != null) {
-            this.plaintext = encryptionStrategy.decrypt(ciphertext);
-            JsonReader jsonReader = new JsonReader();
-            StringReader stringReader = new StringReader(plaintext);
-            return jsonReader.read(stringReader);
-        } else {
-            return null;
+        }
+
+        Workspace decryptedWorkspace = this.decryptedWorkspace;
+        if (decryptedWorkspace == null) {
+            synchronized (this) {
+                decryptedWorkspace = this.decryptedWorkspace;
+                if (decryptedWorkspace == null && this.ciphertext != null) {
+                    decryptedWorkspace = decryptWorkspace();
+                    this.decryptedWorkspace = decryptedWorkspace;
+                }
+            }
+        }
+
+        return decryptedWorkspace;
+    }
+
+    private Workspace decryptWorkspace() throws Exception {
+        String plaintext = getRetainedPlaintext();
+        if (plaintext != null) {
+            return new JsonReader().read(new StringReader(plaintext));
+        }
+
+        // the JSON is parsed as it's decrypted, rather than being held as plaintext first
+        InputStream ciphertext = new ByteArrayInputStream(this.ciphertext.getBytes(StandardCharsets.US_ASCII));
+        try (Reader reader = new InputStreamReader(encryptionStrategy.createDecryptingStream(ciphertext), StandardCharsets.UTF_8)) {
+            return new JsonReader().read(reader);
+        } catch (WorkspaceReaderException | IOException e) {
+            // the JSON is parsed before the decryption has been verified (e.g. by checking the padding), so
+            // a wrong passphrase usually surfaces as a parse error on garbage; find out whether that's the case
+            try {
+                encryptionStrategy.decrypt(this.ciphertext);
+            } catch (Exception decryptionException) {
+                throw new GeneralSecurityException("Could not decrypt the workspace; the passphrase is probably incorrect.", decryptionException);
+            }
+
+            throw e;
         }
     }
 
@@ -69,16 +116,55 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         return ciphertext;
     }
 
-    public void setCiphertext(String ciphertext) {
+    public synchronized void setCiphertext(String ciphertext) {
         this.ciphertext = ciphertext;
+        discardDecryptedContent();
     }
 
+    /**
+     * Gets the plaintext (JSON) of the workspace, decrypting the ciphertext if necessary.
+     * See {@link #setRetainPlaintext(boolean)}.
+     *
+     * @return  the plaintext, as a String
+     * @throws Exception    if the ciphertext can't be decrypted
+     */
     @JsonIgnore
-    public String getPlaintext() throws Exception {
+    public synchronized String getPlaintext() throws Exception {
         if (this.plaintext != null) {
             return this.plaintext;
-        } else {
-            return encryptionStrategy.decrypt(ciphertext);
+        }
+
+        String plaintext = getRetainedPlaintext();
+        if (plaintext == null) {
+            plaintext = encryptionStrategy.decrypt(ciphertext);
+            if (retainPlaintext) {
+                decryptedPlaintext = new SoftReference<>(plaintext);
+            }
+        }
+
+        return plaintext;
+    }
+
+    private String getRetainedPlaintext() {
+        return decryptedPlaintext != null ? decryptedPlaintext.get() : null;
+    }
+
+    @JsonIgnore
+    public boolean isRetainPlaintext() {
+        return retainPlaintext;
+    }
+
+    /**
+     * Specifies whether plaintext decrypted by {@link #getPlaintext()} should be retained (with a soft
+     * reference, so it can still be garbage collected if memory is short) rather than being decrypted
+     * again on the next call. This is off by default, so that the plaintext doesn't linger in memory.
+     *
+     * @param retainPlaintext   true to retain the plaintext, false otherwise
+     */
+    public synchronized void setRetainPlaintext(boolean retainPlaintext) {
+        this.retainPlaintext = retainPlaintext;
+        if (!retainPlaintext) {
+            decryptedPlaintext = null;
         }
     }
 
@@ -86,8 +172,14 @@ public final class EncryptedWorkspace extends AbstractWorkspace {
         return encryptionStrategy;
     }
 
-    public void setEncryptionStrategy(EncryptionStrategy encryptionStrategy) {
+    public synchronized void setEncryptionStrategy(EncryptionStrategy encryptionStrategy) {
         this.encryptionStrategy = encryptionStrategy;
+        discardDecryptedContent();
+    }
+
+    private void discardDecryptedContent() {
+        decryptedWorkspace = null;
+        decryptedPlaintext = null;
     }
 
 }
@@ -5,12 +5,16 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.structurizr.documentation.StructurizrDocumentation;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Superclass for all encryption strategies.
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "type")
 @JsonSubTypes({
-    @JsonSubTypes.Type(value=AesEncryptionStrategy.class, name="aes")
+    @JsonSubTypes.Type(value=AesEncryptionStrategy.class, name="aes"),
+    @JsonSubTypes.Type(value=ChunkedAesGcmEncryptionStrategy.class, name="aes-gcm-chunked")
 })
 public abstract class EncryptionStrategy {
 
@@ -45,5 +49,88 @@ public abstract class EncryptionStrategy {
 
     public abstract String decrypt(String ciphertext) throws Exception;
 
+    /**
+     * Creates an output stream that encrypts the (UTF-8) plaintext written to it, writing the
+     * ciphertext (in the same Base64 form as {@link #encrypt(String)}) to the given output stream.
+     * The returned stream must be closed to complete the ciphertext; this doesn't close the given stream.
+     *
+     * This default implementation buffers the plaintext and encrypts it when the stream is closed.
+     *
+     * @param ciphertext    the OutputStream to write the ciphertext to
+     * @return  an OutputStream to write the plaintext to
+     * @throws Exception    if the stream can't be created
+     */
+    public OutputStream createEncryptingStream(OutputStream ciphertext) throws Exception {
+        return new ByteArrayOutputStream() {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    try {
+                        ciphertext.write(encrypt(new String(toByteArray(), StandardCharsets.UTF_8)).getBytes(StandardCharsets.US_ASCII));
+                        ciphertext.flush();
+                    } catch (IOException ioe) {
+                        throw ioe;
+                    } catch (Exception e) {
+                        throw new IOException(e);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates an input stream that decrypts the given (Base64) ciphertext, returning the UTF-8 plaintext.
+     *
+     * This default implementation reads and decrypts all of the ciphertext up front.
+     *
+     * @param ciphertext    the InputStream to read the ciphertext from
+     * @return  an InputStream to read the plaintext from
+     * @throws Exception    if the ciphertext can't be decrypted
+     */
+    public InputStream createDecryptingStream(InputStream ciphertext) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        copy(ciphertext, buffer);
+
+        return new ByteArrayInputStream(decrypt(new String(buffer.toByteArray(), StandardCharsets.US_ASCII)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encrypts everything read from the given input stream, writing the ciphertext to the given output stream.
+     * Neither stream is closed.
+     *
+     * @param plaintext     an InputStream of UTF-8 plaintext
+     * @param ciphertext    an OutputStream for the ciphertext
+     * @throws Exception    if something goes wrong
+     */
+    public void encrypt(InputStream plaintext, OutputStream ciphertext) throws Exception {
+        try (OutputStream outputStream = createEncryptingStream(ciphertext)) {
+            copy(plaintext, outputStream);
+        }
+    }
+
+    /**
+     * Decrypts everything read from the given input stream, writing the plaintext to the given output stream.
+     * Neither stream is closed.
+     *
+     * @param ciphertext    an InputStream of ciphertext
+     * @param plaintext     an OutputStream for the UTF-8 plaintext
+     * @throws Exception    if something goes wrong
+     */
+    public void decrypt(InputStream ciphertext, OutputStream plaintext) throws Exception {
+        copy(createDecryptingStream(ciphertext), plaintext);
+        plaintext.flush();
+    }
+
+    private static void copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
 }
 
@@ -0,0 +1,86 @@
+package com.structurizr.encryption;
+
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.bind.DatatypeConverter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives AES keys from passphrases. Deriving a key (PBKDF2) is deliberately slow, so the most
+ * recently used keys are cached, keyed on everything that goes into the derivation (with the
+ * passphrase replaced by a salted digest, so that plaintext passphrases aren't held by the cache).
+ */
+final class SecretKeys {
+
+    private static final int MAXIMUM_NUMBER_OF_CACHED_KEYS = 16;
+
+    private static final Map<List<Object>, SecretKey> secretKeys = new LeastRecentlyUsedCache();
+
+    private SecretKeys() {
+    }
+
+    /**
+     * Gets the AES key for the given passphrase, salt, iteration count and key size.
+     *
+     * @param passphrase        the passphrase
+     * @param salt              the salt, as a hex string
+     * @param iterationCount    the PBKDF2 iteration count
+     * @param keySize           the key size, in bits
+     * @return  a SecretKey
+     */
+    static SecretKey getAesKey(String passphrase, String salt, int iterationCount, int keySize) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        List<Object> cacheKey = Arrays.asList(digest(passphrase, salt), salt, iterationCount, keySize);
+
+        SecretKey secretKey;
+        synchronized (secretKeys) {
+            secretKey = secretKeys.get(cacheKey);
+        }
+
+        if (secretKey == null) {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
+            KeySpec spec = new PBEKeySpec(passphrase.toCharArray(), DatatypeConverter.parseHexBinary(salt), iterationCount, keySize);
+            secretKey = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+
+            synchronized (secretKeys) {
+                secretKeys.put(cacheKey, secretKey);
+            }
+        }
+
+        return secretKey;
+    }
+
+    private static String digest(String passphrase, String salt) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(salt.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+        digest.update(passphrase.getBytes(StandardCharsets.UTF_8));
+
+        return DatatypeConverter.printHexBinary(digest.digest());
+    }
+
+    private static final class LeastRecentlyUsedCache extends LinkedHashMap<List<Object>, SecretKey> {
+
+        private static final long serialVersionUID = 1L;
+
+        private LeastRecentlyUsedCache() {
+            super(MAXIMUM_NUMBER_OF_CACHED_KEYS, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, SecretKey> eldest) {
+            return size() > MAXIMUM_NUMBER_OF_CACHED_KEYS;
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.structurizr.encryption;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Allows a chain of output streams (e.g. cipher and Base64 streams) to be closed, so that they
+ * write their final bytes, without closing the output stream at the end of the chain.
+ */
+final class UnclosableOutputStream extends FilterOutputStream {
+
+    UnclosableOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+}
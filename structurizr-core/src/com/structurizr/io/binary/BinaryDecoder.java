@@ -0,0 +1,500 @@
+package com.structurizr.io.binary;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Image;
+import com.structurizr.io.json.JsonSerializationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static com.structurizr.io.binary.BinaryFormat.*;
+
+/**
+ * Decodes a binary workspace held in a ByteBuffer. The section offsets are indexed and the
+ * string table decoded up front; sections are only decoded when asked for. The records within
+ * a section (e.g. individual views) can be indexed too, and decoded on their own.
+ */
+final class BinaryDecoder {
+
+    private final ByteBuffer buffer;
+    private final int[] sectionOffsets = new int[LAST_SECTION + 1];
+    private final int[] sectionLengths = new int[LAST_SECTION + 1];
+    private String[] strings = new String[0];
+
+    private List<String> imageNames;
+    private int[] imageOffsets;
+    private int[] imageLengths;
+
+    BinaryDecoder(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate();
+
+        try {
+            indexSections();
+        } catch (BufferUnderflowException bue) {
+            throw new IOException("The binary workspace is truncated", bue);
+        }
+    }
+
+    private void indexSections() throws IOException {
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                throw new IOException("This is not a binary workspace");
+            }
+        }
+
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary workspace version " + version);
+        }
+
+        while (buffer.hasRemaining()) {
+            int section = buffer.get();
+            int length = readLength(buffer);
+            if (section > 0 && section < sectionOffsets.length) {
+                sectionOffsets[section] = buffer.position();
+                sectionLengths[section] = length;
+            }
+            buffer.position(buffer.position() + length);
+        }
+
+        if (hasSection(SECTION_STRINGS)) {
+            ByteBuffer section = section(SECTION_STRINGS);
+            long numberOfStrings = readVarint(section);
+            if (numberOfStrings < 0 || numberOfStrings > section.remaining()) {
+                // every string takes at least one byte (its length)
+                throw new IOException("The string table size " + numberOfStrings + " exceeds the remaining data");
+            }
+            strings = new String[(int)numberOfStrings];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(section);
+            }
+        }
+    }
+
+    boolean hasSection(int section) {
+        return sectionOffsets[section] > 0;
+    }
+
+    private ByteBuffer section(int section) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(sectionOffsets[section] + sectionLengths[section]);
+        slice.position(sectionOffsets[section]);
+
+        return slice;
+    }
+
+    /**
+     * Decodes and hydrates the complete workspace.
+     */
+    Workspace decodeWorkspace() throws IOException {
+        TokenBuffer tokens = new TokenBuffer(null, false);
+        tokens.writeStartObject();
+        if (hasSection(SECTION_WORKSPACE)) {
+            replay(section(SECTION_WORKSPACE), tokens);
+        }
+        replayProperty(SECTION_MODEL, MODEL_PROPERTY, tokens);
+        replayProperty(SECTION_VIEWS, VIEWS_PROPERTY, tokens);
+        replayDocumentation(tokens);
+        tokens.writeEndObject();
+
+        Workspace workspace = JsonSerializationContext.getReader(Workspace.class).readValue(tokens.asParser());
+        workspace.hydrate();
+
+        return workspace;
+    }
+
+    /**
+     * Decodes a single section (without hydrating it) as the given type.
+     */
+    <T> T decodeSection(int section, Class<T> type) throws IOException {
+        if (!hasSection(section)) {
+            return null;
+        }
+
+        TokenBuffer tokens = new TokenBuffer(null, false);
+        replay(section(section), tokens);
+
+        return JsonSerializationContext.getReader(type).readValue(tokens.asParser());
+    }
+
+    /**
+     * Gets the names of the documentation images, in the order they were written.
+     */
+    List<String> getImageNames() throws IOException {
+        indexImages();
+
+        return imageNames;
+    }
+
+    /**
+     * Decodes a single documentation image.
+     */
+    Image decodeImage(int index) throws IOException {
+        indexImages();
+
+        TokenBuffer tokens = new TokenBuffer(null, false);
+        replay(image(index), tokens);
+
+        return JsonSerializationContext.getReader(Image.class).readValue(tokens.asParser());
+    }
+
+    private void indexImages() throws IOException {
+        if (imageNames != null) {
+            return;
+        }
+
+        List<String> names = new ArrayList<>();
+        List<int[]> records = new ArrayList<>();
+        if (hasSection(SECTION_IMAGES)) {
+            ByteBuffer section = section(SECTION_IMAGES);
+            try {
+                while (section.hasRemaining()) {
+                    names.add(readString(section));
+                    int length = readLength(section);
+                    records.add(new int[] { section.position(), length });
+                    section.position(section.position() + length);
+                }
+            } catch (BufferUnderflowException bue) {
+                throw new IOException("The binary workspace is truncated", bue);
+            }
+        }
+
+        imageOffsets = new int[records.size()];
+        imageLengths = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            imageOffsets[i] = records.get(i)[0];
+            imageLengths[i] = records.get(i)[1];
+        }
+        imageNames = Collections.unmodifiableList(names);
+    }
+
+    private ByteBuffer image(int index) {
+        return slice(imageOffsets[index], imageLengths[index]);
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length);
+        slice.position(offset);
+
+        return slice;
+    }
+
+    /**
+     * Indexes the records in a section that holds an object whose properties are (mostly) arrays of
+     * objects, e.g. the views in each of the view collections, or the documentation sections.
+     * The tokens are skipped over rather than decoded, apart from the given string properties
+     * of each record (e.g. the view key), which are read so that records can be found by them.
+     *
+     * @return  the index, or null if the section is missing or isn't an object
+     */
+    RecordIndex indexRecords(int section, Set<String> properties) throws IOException {
+        if (!hasSection(section)) {
+            return null;
+        }
+
+        ByteBuffer tokens = section(section);
+        if (tokens.get(tokens.position()) != START_OBJECT) {
+            return null;
+        }
+
+        RecordIndex index = new RecordIndex();
+        try {
+            tokens.get();
+            while (tokens.hasRemaining() && tokens.get(tokens.position()) == FIELD_NAME) {
+                int fieldOffset = tokens.position();
+                tokens.get();
+                String collection = string(tokens);
+
+                if (isArrayOfObjects(tokens)) {
+                    tokens.get();
+                    while (tokens.get(tokens.position()) == START_OBJECT) {
+                        index.records.add(indexRecord(tokens, collection, properties));
+                    }
+                    expect(tokens, END_ARRAY);
+                } else {
+                    skipValue(tokens);
+                    index.otherProperties.add(new int[] { fieldOffset, tokens.position() - fieldOffset });
+                }
+            }
+            expect(tokens, END_OBJECT);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("The binary workspace is truncated", e);
+        }
+
+        return index;
+    }
+
+    private static boolean isArrayOfObjects(ByteBuffer tokens) {
+        int position = tokens.position();
+        return tokens.get(position) == START_ARRAY
+                && (tokens.get(position + 1) == START_OBJECT || tokens.get(position + 1) == END_ARRAY);
+    }
+
+    private Record indexRecord(ByteBuffer tokens, String collection, Set<String> properties) throws IOException {
+        int offset = tokens.position();
+        Map<String, String> values = new HashMap<>();
+
+        tokens.get();
+        while (tokens.get(tokens.position()) == FIELD_NAME) {
+            tokens.get();
+            String name = string(tokens);
+            if (properties.contains(name)) {
+                switch (tokens.get(tokens.position())) {
+                    case STRING_REFERENCE:
+                        tokens.get();
+                        values.put(name, string(tokens));
+                        continue;
+                    case STRING:
+                        tokens.get();
+                        values.put(name, readString(tokens));
+                        continue;
+                    case DECIMAL_STRING:
+                        tokens.get();
+                        values.put(name, Long.toString(readVarint(tokens)));
+                        continue;
+                }
+            }
+            skipValue(tokens);
+        }
+        expect(tokens, END_OBJECT);
+
+        return new Record(collection, offset, tokens.position() - offset, values);
+    }
+
+    /**
+     * Skips over the value (and, if it's an object or array, its contents) at the current position.
+     */
+    private void skipValue(ByteBuffer tokens) throws IOException {
+        int depth = 0;
+        do {
+            int opcode = tokens.get();
+            switch (opcode) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                case FIELD_NAME:
+                case STRING_REFERENCE:
+                case DECIMAL_STRING:
+                case INTEGER:
+                    readVarint(tokens);
+                    break;
+                case STRING:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    int length = readLength(tokens);
+                    tokens.position(tokens.position() + length);
+                    break;
+                case DOUBLE:
+                    tokens.position(tokens.position() + 8);
+                    break;
+                case TRUE:
+                case FALSE:
+                case NULL:
+                    break;
+                default:
+                    throw new IOException("Unknown opcode " + opcode + " at position " + (tokens.position() - 1));
+            }
+        } while (depth > 0);
+    }
+
+    private static void expect(ByteBuffer tokens, int opcode) throws IOException {
+        if (tokens.get() != opcode) {
+            throw new IOException("Malformed token stream at position " + (tokens.position() - 1));
+        }
+    }
+
+    /**
+     * Decodes the given records (without hydrating them) as an object of the given type, which contains
+     * just those records in their collections, plus the other (non-collection) properties if asked for.
+     */
+    <T> T decodeRecords(RecordIndex index, List<Record> records, boolean includeOtherProperties, Class<T> type) throws IOException {
+        TokenBuffer tokens = new TokenBuffer(null, false);
+        tokens.writeStartObject();
+        if (includeOtherProperties) {
+            for (int[] property : index.otherProperties) {
+                replay(slice(property[0], property[1]), tokens);
+            }
+        }
+
+        Map<String, List<Record>> recordsByCollection = new LinkedHashMap<>();
+        for (Record record : records) {
+            recordsByCollection.computeIfAbsent(record.collection, c -> new ArrayList<>()).add(record);
+        }
+        for (Map.Entry<String, List<Record>> collection : recordsByCollection.entrySet()) {
+            tokens.writeFieldName(collection.getKey());
+            tokens.writeStartArray();
+            for (Record record : collection.getValue()) {
+                replay(slice(record.offset, record.length), tokens);
+            }
+            tokens.writeEndArray();
+        }
+        tokens.writeEndObject();
+
+        return JsonSerializationContext.getReader(type).readValue(tokens.asParser());
+    }
+
+    /**
+     * The records in a section, and the locations of the other properties alongside them.
+     */
+    static final class RecordIndex {
+
+        private final List<Record> records = new ArrayList<>();
+        private final List<int[]> otherProperties = new ArrayList<>();
+
+        List<Record> getRecords() {
+            return records;
+        }
+
+    }
+
+    /**
+     * A single record (e.g. a view) in a collection, along with the string properties that were read
+     * while indexing it.
+     */
+    static final class Record {
+
+        private final String collection;
+        private final int offset;
+        private final int length;
+        private final Map<String, String> properties;
+
+        private Record(String collection, int offset, int length, Map<String, String> properties) {
+            this.collection = collection;
+            this.offset = offset;
+            this.length = length;
+            this.properties = properties;
+        }
+
+        String getProperty(String name) {
+            return properties.get(name);
+        }
+
+    }
+
+    private void replayProperty(int section, String name, JsonGenerator generator) throws IOException {
+        if (hasSection(section)) {
+            generator.writeFieldName(name);
+            replay(section(section), generator);
+        }
+    }
+
+    /**
+     * Replays the documentation, putting the images back in.
+     */
+    private void replayDocumentation(JsonGenerator generator) throws IOException {
+        if (!hasSection(SECTION_DOCUMENTATION)) {
+            return;
+        }
+
+        ByteBuffer documentation = section(SECTION_DOCUMENTATION);
+        generator.writeFieldName(DOCUMENTATION_PROPERTY);
+        if (documentation.get(documentation.position()) != START_OBJECT) {
+            replay(documentation, generator);
+            return;
+        }
+
+        // leave the documentation object open while the images are added
+        documentation.limit(documentation.limit() - 1);
+        replay(documentation, generator);
+
+        indexImages();
+        if (!imageNames.isEmpty()) {
+            generator.writeFieldName(IMAGES_PROPERTY);
+            generator.writeStartArray();
+            for (int i = 0; i < imageNames.size(); i++) {
+                replay(image(i), generator);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the tokens in the given part of the buffer to a JSON generator.
+     */
+    private void replay(ByteBuffer section, JsonGenerator generator) throws IOException {
+        try {
+            while (section.hasRemaining()) {
+                int opcode = section.get();
+                switch (opcode) {
+                    case START_OBJECT:
+                        generator.writeStartObject();
+                        break;
+                    case END_OBJECT:
+                        generator.writeEndObject();
+                        break;
+                    case START_ARRAY:
+                        generator.writeStartArray();
+                        break;
+                    case END_ARRAY:
+                        generator.writeEndArray();
+                        break;
+                    case FIELD_NAME:
+                        generator.writeFieldName(string(section));
+                        break;
+                    case STRING_REFERENCE:
+                        generator.writeString(string(section));
+                        break;
+                    case STRING:
+                        generator.writeString(readString(section));
+                        break;
+                    case DECIMAL_STRING:
+                        generator.writeString(Long.toString(readVarint(section)));
+                        break;
+                    case INTEGER:
+                        long value = readSignedVarint(section);
+                        if (value == (int)value) {
+                            generator.writeNumber((int)value);
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                        break;
+                    case DOUBLE:
+                        generator.writeNumber(section.getDouble());
+                        break;
+                    case TRUE:
+                        generator.writeBoolean(true);
+                        break;
+                    case FALSE:
+                        generator.writeBoolean(false);
+                        break;
+                    case NULL:
+                        generator.writeNull();
+                        break;
+                    case BIG_INTEGER:
+                        generator.writeNumber(new BigInteger(readString(section)));
+                        break;
+                    case BIG_DECIMAL:
+                        generator.writeNumber(new BigDecimal(readString(section)));
+                        break;
+                    default:
+                        throw new IOException("Unknown opcode " + opcode + " at position " + (section.position() - 1));
+                }
+            }
+        } catch (BufferUnderflowException bue) {
+            throw new IOException("The binary workspace is truncated", bue);
+        }
+    }
+
+    private String string(ByteBuffer section) throws IOException {
+        long index = readVarint(section);
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("String table index " + index + " is out of range");
+        }
+
+        return strings[(int)index];
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.structurizr.io.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encodings for the binary workspace format.
+ *
+ * A binary workspace is the magic number and a version byte, followed by a number of sections.
+ * Each section is a tag byte, a varint length and the section contents. The string table comes
+ * first, followed by the workspace properties, the model, the views, the documentation and finally
+ * the documentation images.
+ *
+ * The model, views and documentation sections are the Jackson token stream of the corresponding
+ * part of the JSON document, where each token is a single byte opcode followed by its value.
+ * Field names and short strings (names, tags, technologies, etc) are written as varint indexes
+ * into the string table, and decimal strings (e.g. element IDs) are written as varints.
+ *
+ * Documentation images are taken out of the documentation section, and written as a sequence of
+ * records (the image name, a varint length and the token stream of the image) in their own section,
+ * so that they can be located and decoded individually.
+ */
+final class BinaryFormat {
+
+    static final byte[] MAGIC = { 'S', 'Z', 'W', 'B' };
+    static final int VERSION = 1;
+
+    static final int SECTION_STRINGS = 1;
+    static final int SECTION_WORKSPACE = 2;
+    static final int SECTION_MODEL = 3;
+    static final int SECTION_VIEWS = 4;
+    static final int SECTION_DOCUMENTATION = 5;
+    static final int SECTION_IMAGES = 6;
+    static final int LAST_SECTION = SECTION_IMAGES;
+
+    static final String MODEL_PROPERTY = "model";
+    static final String VIEWS_PROPERTY = "views";
+    static final String DOCUMENTATION_PROPERTY = "documentation";
+    static final String IMAGES_PROPERTY = "images";
+    static final String NAME_PROPERTY = "name";
+
+    static final int START_OBJECT = 1;
+    static final int END_OBJECT = 2;
+    static final int START_ARRAY = 3;
+    static final int END_ARRAY = 4;
+    static final int FIELD_NAME = 5;
+    static final int STRING_REFERENCE = 6;
+    static final int STRING = 7;
+    static final int DECIMAL_STRING = 8;
+    static final int INTEGER = 9;
+    static final int DOUBLE = 10;
+    static final int TRUE = 11;
+    static final int FALSE = 12;
+    static final int NULL = 13;
+    static final int BIG_INTEGER = 14;
+    static final int BIG_DECIMAL = 15;
+
+    /** strings longer than this (e.g. descriptions and documentation content) are written inline */
+    static final int MAXIMUM_STRING_TABLE_ENTRY_LENGTH = 64;
+
+    private BinaryFormat() {
+    }
+
+    static int sectionForProperty(String name) {
+        switch (name) {
+            case MODEL_PROPERTY:
+                return SECTION_MODEL;
+            case VIEWS_PROPERTY:
+                return SECTION_VIEWS;
+            case DOCUMENTATION_PROPERTY:
+                return SECTION_DOCUMENTATION;
+            default:
+                return SECTION_WORKSPACE;
+        }
+    }
+
+    /**
+     * Determines whether a string is a decimal number that survives a round trip through a long,
+     * i.e. no sign, no leading zeros and at most 18 digits.
+     */
+    static boolean isDecimalString(String s) {
+        int length = s.length();
+        if (length == 0 || length > 18 || (s.charAt(0) == '0' && length > 1)) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int)value);
+    }
+
+    static void writeSignedVarint(OutputStream out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static long readVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (shift < 64) {
+            byte b = buffer.get();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+
+        throw new IOException("Malformed varint at position " + buffer.position());
+    }
+
+    static long readSignedVarint(ByteBuffer buffer) throws IOException {
+        long value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int readLength(ByteBuffer buffer) throws IOException {
+        long length = readVarint(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Length " + length + " at position " + buffer.position() + " exceeds the remaining data");
+        }
+
+        return (int)length;
+    }
+
+    static String readString(ByteBuffer buffer) throws IOException {
+        int length = readLength(buffer);
+        if (buffer.hasArray()) {
+            String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return s;
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.structurizr.io.binary;
+
+import com.structurizr.Workspace;
+import com.structurizr.io.WorkspaceReader;
+import com.structurizr.io.WorkspaceReaderException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Reads a workspace definition that was written by the {@link BinaryWriter}.
+ */
+public final class BinaryReader implements WorkspaceReader {
+
+    /**
+     * Reads a binary workspace definition from the specified InputStream.
+     *
+     * @param inputStream   an InputStream on top of the workspace definition
+     * @return          a Workspace object
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public Workspace read(InputStream inputStream) throws WorkspaceReaderException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("InputStream cannot be null.");
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, n);
+            }
+
+            return read(ByteBuffer.wrap(bytes.toByteArray()));
+        } catch (IOException ioe) {
+            throw new WorkspaceReaderException("Could not read binary workspace", ioe);
+        }
+    }
+
+    /**
+     * Reads a binary workspace definition from the specified ByteBuffer.
+     *
+     * @param buffer    a ByteBuffer containing the workspace definition
+     * @return          a Workspace object
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public Workspace read(ByteBuffer buffer) throws WorkspaceReaderException {
+        if (buffer == null) {
+            throw new IllegalArgumentException("ByteBuffer cannot be null.");
+        }
+
+        try {
+            return new BinaryDecoder(buffer).decodeWorkspace();
+        } catch (IOException ioe) {
+            throw new WorkspaceReaderException("Could not read binary workspace", ioe);
+        }
+    }
+
+    /**
+     * Reads a binary workspace definition, encoded as Base64 text (as written by
+     * {@link BinaryWriter#write(Workspace, Writer)}), from the specified Reader.
+     *
+     * @param reader    a Reader on top of the workspace definition
+     * @return          a Workspace object
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public Workspace read(Reader reader) throws WorkspaceReaderException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null.");
+        }
+
+        Reader bufferedReader = new BufferedReader(reader);
+        InputStream characters = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                int c = bufferedReader.read();
+                while (c != -1 && Character.isWhitespace(c)) {
+                    c = bufferedReader.read(); // e.g. line breaks or a trailing newline
+                }
+
+                return c;
+            }
+        };
+
+        return read(Base64.getDecoder().wrap(characters));
+    }
+
+}
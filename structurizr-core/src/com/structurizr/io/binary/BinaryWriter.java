@@ -0,0 +1,284 @@
+package com.structurizr.io.binary;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.structurizr.Workspace;
+import com.structurizr.io.WorkspaceWriter;
+import com.structurizr.io.WorkspaceWriterException;
+import com.structurizr.io.json.JsonSerializationContext;
+
+import java.io.*;
+import java.util.*;
+
+import static com.structurizr.io.binary.BinaryFormat.*;
+
+/**
+ * Writes a workspace definition in a compact binary format, which is smaller and faster to read
+ * than JSON. This is intended for caching workspaces (e.g. between build stages), rather than as
+ * an interchange format.
+ */
+public final class BinaryWriter implements WorkspaceWriter {
+
+    /**
+     * Writes a workspace definition in binary format to the specified OutputStream.
+     * The stream is flushed, but not closed.
+     *
+     * @param workspace     the Workspace object to write
+     * @param outputStream  the OutputStream to write the workspace to
+     * @throws WorkspaceWriterException     if something goes wrong
+     */
+    public void write(Workspace workspace, OutputStream outputStream) throws WorkspaceWriterException {
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace cannot be null.");
+        }
+        if (outputStream == null) {
+            throw new IllegalArgumentException("OutputStream cannot be null.");
+        }
+
+        try {
+            TokenBuffer tokens = new TokenBuffer(null, false);
+            JsonSerializationContext.getWriter(false).writeValue(tokens, workspace);
+
+            new Encoder().encode(tokens.asParser(), outputStream);
+        } catch (IOException ioe) {
+            throw new WorkspaceWriterException("Could not write as binary", ioe);
+        }
+    }
+
+    /**
+     * Writes a workspace definition in binary format, encoded as Base64 text,
+     * to the specified Writer object. The writer is flushed, but not closed.
+     *
+     * @param workspace     the Workspace object to write
+     * @param writer        the Writer object to write the workspace to
+     * @throws WorkspaceWriterException     if something goes wrong
+     */
+    public void write(Workspace workspace, Writer writer) throws WorkspaceWriterException {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer cannot be null.");
+        }
+
+        OutputStream characters = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                writer.write(b);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+
+        try {
+            OutputStream base64 = Base64.getEncoder().wrap(new BufferedOutputStream(characters));
+            write(workspace, base64);
+            base64.close(); // writes the padding and flushes, but doesn't close the writer
+        } catch (IOException ioe) {
+            throw new WorkspaceWriterException("Could not write as binary", ioe);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        private final ByteArrayOutputStream[] sections = new ByteArrayOutputStream[LAST_SECTION + 1];
+
+        void encode(JsonParser parser, OutputStream outputStream) throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected the workspace to be serialized as an object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                int section = sectionForProperty(name);
+                ByteArrayOutputStream out = section(section);
+
+                if (section == SECTION_WORKSPACE) {
+                    writeStringReference(out, FIELD_NAME, name);
+                }
+
+                parser.nextToken();
+                if (section == SECTION_DOCUMENTATION) {
+                    encodeDocumentation(parser, out);
+                } else {
+                    encodeValue(parser, out);
+                }
+            }
+
+            ByteArrayOutputStream stringTable = section(SECTION_STRINGS);
+            writeVarint(stringTable, strings.size());
+            for (String s : strings) {
+                writeString(stringTable, s);
+            }
+
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            out.write(MAGIC);
+            out.write(VERSION);
+            for (int section = SECTION_STRINGS; section < sections.length; section++) {
+                if (sections[section] != null) {
+                    out.write(section);
+                    writeVarint(out, sections[section].size());
+                    sections[section].writeTo(out);
+                }
+            }
+            out.flush();
+        }
+
+        private ByteArrayOutputStream section(int section) {
+            if (sections[section] == null) {
+                sections[section] = new ByteArrayOutputStream(section == SECTION_WORKSPACE ? 256 : 8192);
+            }
+
+            return sections[section];
+        }
+
+        /**
+         * Encodes the documentation, moving each of the images into a record of its own.
+         */
+        private void encodeDocumentation(JsonParser parser, OutputStream out) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                encodeValue(parser, out);
+                return;
+            }
+
+            out.write(START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+
+                if (IMAGES_PROPERTY.equals(name) && parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        encodeImage(parser);
+                    }
+                } else {
+                    writeStringReference(out, FIELD_NAME, name);
+                    encodeValue(parser, out);
+                }
+            }
+            out.write(END_OBJECT);
+        }
+
+        private void encodeImage(JsonParser parser) throws IOException {
+            ByteArrayOutputStream image = new ByteArrayOutputStream();
+            String name = "";
+
+            image.write(START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (NAME_PROPERTY.equals(field) && parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                    name = parser.getText();
+                }
+
+                writeStringReference(image, FIELD_NAME, field);
+                encodeValue(parser, image);
+            }
+            image.write(END_OBJECT);
+
+            ByteArrayOutputStream images = section(SECTION_IMAGES);
+            writeString(images, name);
+            writeVarint(images, image.size());
+            image.writeTo(images);
+        }
+
+        /**
+         * Encodes the current token and, if it starts an object or array, the rest of that structure.
+         */
+        private void encodeValue(JsonParser parser, OutputStream out) throws IOException {
+            int depth = 0;
+            do {
+                JsonToken token = parser.getCurrentToken();
+                switch (token) {
+                    case START_OBJECT:
+                        out.write(START_OBJECT);
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                        out.write(END_OBJECT);
+                        depth--;
+                        break;
+                    case START_ARRAY:
+                        out.write(START_ARRAY);
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                        out.write(END_ARRAY);
+                        depth--;
+                        break;
+                    case FIELD_NAME:
+                        writeStringReference(out, FIELD_NAME, parser.getCurrentName());
+                        break;
+                    case VALUE_STRING:
+                        encodeString(parser.getText(), out);
+                        break;
+                    case VALUE_NUMBER_INT:
+                        switch (parser.getNumberType()) {
+                            case BIG_INTEGER:
+                                out.write(BIG_INTEGER);
+                                writeString(out, parser.getText());
+                                break;
+                            default:
+                                out.write(INTEGER);
+                                writeSignedVarint(out, parser.getLongValue());
+                        }
+                        break;
+                    case VALUE_NUMBER_FLOAT:
+                        switch (parser.getNumberType()) {
+                            case BIG_DECIMAL:
+                                out.write(BIG_DECIMAL);
+                                writeString(out, parser.getDecimalValue().toString());
+                                break;
+                            default:
+                                out.write(DOUBLE);
+                                long bits = Double.doubleToRawLongBits(parser.getDoubleValue());
+                                for (int shift = 56; shift >= 0; shift -= 8) {
+                                    out.write((int)(bits >>> shift));
+                                }
+                        }
+                        break;
+                    case VALUE_TRUE:
+                        out.write(TRUE);
+                        break;
+                    case VALUE_FALSE:
+                        out.write(FALSE);
+                        break;
+                    case VALUE_NULL:
+                        out.write(NULL);
+                        break;
+                    default:
+                        throw new IOException("Unsupported token " + token);
+                }
+            } while (depth > 0 && parser.nextToken() != null);
+        }
+
+        private void encodeString(String s, OutputStream out) throws IOException {
+            if (isDecimalString(s)) {
+                out.write(DECIMAL_STRING);
+                writeVarint(out, Long.parseLong(s));
+            } else if (s.length() <= MAXIMUM_STRING_TABLE_ENTRY_LENGTH) {
+                writeStringReference(out, STRING_REFERENCE, s);
+            } else {
+                out.write(STRING);
+                writeString(out, s);
+            }
+        }
+
+        private void writeStringReference(OutputStream out, int opcode, String s) throws IOException {
+            Integer index = stringIndexes.get(s);
+            if (index == null) {
+                index = strings.size();
+                strings.add(s);
+                stringIndexes.put(s, index);
+            }
+
+            out.write(opcode);
+            writeVarint(out, index);
+        }
+
+    }
+
+}
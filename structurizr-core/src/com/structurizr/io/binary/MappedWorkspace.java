@@ -0,0 +1,417 @@
+package com.structurizr.io.binary;
+
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Documentation;
+import com.structurizr.documentation.Image;
+import com.structurizr.documentation.Section;
+import com.structurizr.io.WorkspaceReaderException;
+import com.structurizr.io.binary.BinaryDecoder.Record;
+import com.structurizr.io.binary.BinaryDecoder.RecordIndex;
+import com.structurizr.model.Element;
+import com.structurizr.model.Model;
+import com.structurizr.view.FilteredView;
+import com.structurizr.view.View;
+import com.structurizr.view.ViewSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Provides lazy access to a workspace that was written by the {@link BinaryWriter} to a file.
+ *
+ * The file is memory-mapped and only the section offsets and the string table are read up front.
+ * The model, the views, the documentation and each of the documentation images are decoded the
+ * first time they are asked for, so a tool that only needs the model doesn't pay for
+ * deserializing the views or the (often large) documentation. Individual views and documentation
+ * sections can also be decoded on their own (see {@link #getView(String)} and
+ * {@link #getSection(Element, String)}), since the records in those parts of the file are indexed
+ * by skipping over their tokens rather than decoding them.
+ *
+ * The views and documentation are hydrated against the model returned by {@link #getModel()}.
+ * These objects aren't attached to a Workspace; use {@link #getWorkspace()} for that.
+ */
+public final class MappedWorkspace {
+
+    private static final String KEY_PROPERTY = "key";
+    private static final String BASE_VIEW_KEY_PROPERTY = "baseViewKey";
+    private static final String ELEMENT_ID_PROPERTY = "elementId";
+    private static final String TYPE_PROPERTY = "type";
+
+    private final BinaryDecoder decoder;
+
+    private RecordIndex viewIndex;
+    private final Map<String, View> viewsByKey = new HashMap<>();
+    private final Map<String, FilteredView> filteredViewsByKey = new HashMap<>();
+    private RecordIndex sectionIndex;
+    private final Map<List<String>, Section> sectionsByKey = new HashMap<>();
+
+    private Model model;
+    private ViewSet views;
+    private Documentation documentation;
+    private final Map<String, Image> images = new HashMap<>();
+    private Workspace workspace;
+
+    /**
+     * Maps the given binary workspace file.
+     *
+     * @param file      a binary workspace file
+     * @throws WorkspaceReaderException     if the file can't be mapped, or isn't a binary workspace
+     */
+    public MappedWorkspace(File file) throws WorkspaceReaderException {
+        if (file == null) {
+            throw new IllegalArgumentException("A file must be specified.");
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new WorkspaceReaderException("Binary workspaces larger than 2GB can't be mapped", null);
+            }
+
+            // the mapping remains valid once the channel has been closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            decoder = new BinaryDecoder(buffer);
+        } catch (IOException ioe) {
+            throw new WorkspaceReaderException("Could not map binary workspace", ioe);
+        }
+    }
+
+    /**
+     * Gets the model, decoding and hydrating it on first access.
+     *
+     * @return  a Model object
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized Model getModel() throws WorkspaceReaderException {
+        if (model == null) {
+            try {
+                Model m = decoder.decodeSection(BinaryFormat.SECTION_MODEL, Model.class);
+                if (m == null) {
+                    m = new Model();
+                }
+                m.hydrate();
+                model = m;
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not read the model", ioe);
+            }
+        }
+
+        return model;
+    }
+
+    /**
+     * Gets the set of views, decoding them on first access.
+     *
+     * @return  a ViewSet object, or null if the workspace has no views
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized ViewSet getViews() throws WorkspaceReaderException {
+        if (views == null) {
+            try {
+                ViewSet viewSet = decoder.decodeSection(BinaryFormat.SECTION_VIEWS, ViewSet.class);
+                if (viewSet != null) {
+                    viewSet.setModel(getModel());
+                    viewSet.hydrate();
+                }
+                views = viewSet;
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not read the views", ioe);
+            }
+        }
+
+        return views;
+    }
+
+    /**
+     * Gets the keys of the views, without decoding the views themselves.
+     *
+     * @return  a List of view keys, in the order the views were written
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized List<String> getViewKeys() throws WorkspaceReaderException {
+        List<String> keys = new ArrayList<>();
+        for (Record record : getViewIndex().getRecords()) {
+            if (record.getProperty(KEY_PROPERTY) != null) {
+                keys.add(record.getProperty(KEY_PROPERTY));
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Gets a single view, decoding it (and, for a filtered view, its base view) on first access.
+     * If the complete set of views has already been decoded, the view is taken from that instead.
+     * Otherwise the view is hydrated against the model, but isn't part of the set of views
+     * returned by {@link #getViews()}.
+     *
+     * @param key   the key of the view
+     * @return  a View object, or null if there is no view with the given key
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized View getView(String key) throws WorkspaceReaderException {
+        if (key == null) {
+            return null;
+        }
+        if (views != null) {
+            return views.getViewWithKey(key);
+        }
+
+        View view = viewsByKey.get(key);
+        if (view == null) {
+            ViewSet viewSet = decodeView(key);
+            if (viewSet != null) {
+                view = viewSet.getViewWithKey(key);
+                viewsByKey.put(key, view);
+            }
+        }
+
+        return view;
+    }
+
+    /**
+     * Gets a single filtered view, decoding it (and its base view) on first access.
+     * See {@link #getView(String)}.
+     *
+     * @param key   the key of the filtered view
+     * @return  a FilteredView object, or null if there is no filtered view with the given key
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized FilteredView getFilteredView(String key) throws WorkspaceReaderException {
+        if (key == null) {
+            return null;
+        }
+        if (views != null) {
+            return views.getFilteredViewWithKey(key);
+        }
+
+        FilteredView filteredView = filteredViewsByKey.get(key);
+        if (filteredView == null) {
+            ViewSet viewSet = decodeView(key);
+            if (viewSet != null) {
+                filteredView = viewSet.getFilteredViewWithKey(key);
+                filteredViewsByKey.put(key, filteredView);
+            }
+        }
+
+        return filteredView;
+    }
+
+    /**
+     * Decodes the view with the given key (plus its base view, if it's a filtered view) into a set of views
+     * of its own, hydrated against the model.
+     */
+    private ViewSet decodeView(String key) throws WorkspaceReaderException {
+        Record record = findViewRecord(key);
+        if (record == null) {
+            return null;
+        }
+
+        List<Record> records = new ArrayList<>();
+        records.add(record);
+        Record baseViewRecord = findViewRecord(record.getProperty(BASE_VIEW_KEY_PROPERTY));
+        if (baseViewRecord != null && baseViewRecord != record) {
+            records.add(baseViewRecord);
+        }
+
+        try {
+            ViewSet viewSet = decoder.decodeRecords(getViewIndex(), records, false, ViewSet.class);
+            viewSet.setModel(getModel());
+            viewSet.hydrate();
+
+            return viewSet;
+        } catch (IOException ioe) {
+            throw new WorkspaceReaderException("Could not read view " + key, ioe);
+        }
+    }
+
+    private Record findViewRecord(String key) throws WorkspaceReaderException {
+        if (key != null) {
+            for (Record record : getViewIndex().getRecords()) {
+                if (key.equals(record.getProperty(KEY_PROPERTY))) {
+                    return record;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private RecordIndex getViewIndex() throws WorkspaceReaderException {
+        if (viewIndex == null) {
+            try {
+                viewIndex = decoder.indexRecords(BinaryFormat.SECTION_VIEWS, new HashSet<>(Arrays.asList(KEY_PROPERTY, BASE_VIEW_KEY_PROPERTY)));
+                if (viewIndex == null) {
+                    viewIndex = new RecordIndex();
+                }
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not index the views", ioe);
+            }
+        }
+
+        return viewIndex;
+    }
+
+    /**
+     * Gets the types of the documentation sections for the given element, without decoding the sections.
+     *
+     * @param element   an Element, or null for the sections that aren't about a specific element
+     * @return  a List of section types (e.g. "Context"), in the order the sections were written
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized List<String> getSectionTypes(Element element) throws WorkspaceReaderException {
+        String elementId = element != null ? element.getId() : null;
+        List<String> types = new ArrayList<>();
+        for (Record record : getSectionIndex().getRecords()) {
+            if (Objects.equals(elementId, record.getProperty(ELEMENT_ID_PROPERTY)) && record.getProperty(TYPE_PROPERTY) != null) {
+                types.add(record.getProperty(TYPE_PROPERTY));
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Gets a single documentation section, decoding it on first access. If the documentation has already
+     * been decoded, the section is taken from that instead.
+     *
+     * @param element   the Element the section is about, or null
+     * @param type      the type of the section (e.g. "Context")
+     * @return  a Section object, or null if there is no such section
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized Section getSection(Element element, String type) throws WorkspaceReaderException {
+        String elementId = element != null ? element.getId() : null;
+        if (documentation != null) {
+            for (Section section : documentation.getSections()) {
+                if (Objects.equals(elementId, section.getElementId()) && section.getType().equals(type)) {
+                    return section;
+                }
+            }
+
+            return null;
+        }
+
+        List<String> key = Arrays.asList(elementId, type);
+        Section section = sectionsByKey.get(key);
+        if (section == null) {
+            for (Record record : getSectionIndex().getRecords()) {
+                if (Objects.equals(elementId, record.getProperty(ELEMENT_ID_PROPERTY)) && Objects.equals(type, record.getProperty(TYPE_PROPERTY))) {
+                    try {
+                        Documentation d = decoder.decodeRecords(getSectionIndex(), Collections.singletonList(record), true, Documentation.class);
+                        d.setModel(getModel());
+                        d.hydrate();
+                        section = d.getSections().iterator().next();
+                        sectionsByKey.put(key, section);
+                    } catch (IOException ioe) {
+                        throw new WorkspaceReaderException("Could not read section " + type, ioe);
+                    }
+                    break;
+                }
+            }
+        }
+
+        return section;
+    }
+
+    private RecordIndex getSectionIndex() throws WorkspaceReaderException {
+        if (sectionIndex == null) {
+            try {
+                sectionIndex = decoder.indexRecords(BinaryFormat.SECTION_DOCUMENTATION, new HashSet<>(Arrays.asList(ELEMENT_ID_PROPERTY, TYPE_PROPERTY)));
+                if (sectionIndex == null) {
+                    sectionIndex = new RecordIndex();
+                }
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not index the documentation", ioe);
+            }
+        }
+
+        return sectionIndex;
+    }
+
+    /**
+     * Gets the documentation sections, decoding them on first access. Images are not included;
+     * use {@link #getImageNames()} and {@link #getImage(String)} instead.
+     *
+     * @return  a Documentation object, or null if the workspace has no documentation
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized Documentation getDocumentation() throws WorkspaceReaderException {
+        if (documentation == null) {
+            try {
+                Documentation d = decoder.decodeSection(BinaryFormat.SECTION_DOCUMENTATION, Documentation.class);
+                if (d != null) {
+                    d.setModel(getModel());
+                    d.hydrate();
+                }
+                documentation = d;
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not read the documentation", ioe);
+            }
+        }
+
+        return documentation;
+    }
+
+    /**
+     * Gets the names of the documentation images, without decoding the images themselves.
+     *
+     * @return  a List of image names
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized List<String> getImageNames() throws WorkspaceReaderException {
+        try {
+            return decoder.getImageNames();
+        } catch (IOException ioe) {
+            throw new WorkspaceReaderException("Could not read the documentation images", ioe);
+        }
+    }
+
+    /**
+     * Gets a single documentation image, decoding it on first access.
+     *
+     * @param name  the name of the image
+     * @return  an Image object, or null if there is no image with the given name
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized Image getImage(String name) throws WorkspaceReaderException {
+        Image image = images.get(name);
+        if (image == null) {
+            int index = getImageNames().indexOf(name);
+            if (index == -1) {
+                return null;
+            }
+
+            try {
+                image = decoder.decodeImage(index);
+                images.put(name, image);
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not read image " + name, ioe);
+            }
+        }
+
+        return image;
+    }
+
+    /**
+     * Decodes the entire workspace (independently of the lazily decoded parts).
+     *
+     * @return  a Workspace object
+     * @throws WorkspaceReaderException     if something goes wrong
+     */
+    public synchronized Workspace getWorkspace() throws WorkspaceReaderException {
+        if (workspace == null) {
+            try {
+                workspace = decoder.decodeWorkspace();
+            } catch (IOException ioe) {
+                throw new WorkspaceReaderException("Could not read binary workspace", ioe);
+            }
+        }
+
+        return workspace;
+    }
+
+}
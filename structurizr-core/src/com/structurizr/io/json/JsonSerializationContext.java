@@ -0,0 +1,67 @@
+package com.structurizr.io.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Jackson configuration shared by all of the JSON readers and writers.
+ *
+ * A single ObjectMapper is configured once, so that its serializer and deserializer caches are
+ * reused between calls. The ObjectReader and ObjectWriter instances handed out here are immutable
+ * and can be used concurrently from multiple threads.
+ */
+public final class JsonSerializationContext {
+
+    private static final ObjectMapper objectMapper = createObjectMapper();
+
+    private static final ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private static final ObjectWriter indentingWriter = objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private JsonSerializationContext() {
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        objectMapper.enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // the Writer/OutputStream being written to belongs to the caller
+        objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+        return objectMapper;
+    }
+
+    /**
+     * Gets a reader for the given type.
+     *
+     * @param type  the type to deserialize
+     * @return  an ObjectReader
+     */
+    public static ObjectReader getReader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::reader);
+    }
+
+    /**
+     * Gets a writer, with or without indentation.
+     *
+     * @param indentOutput  whether the output should be indented
+     * @return  an ObjectWriter
+     */
+    public static ObjectWriter getWriter(boolean indentOutput) {
+        return indentOutput ? indentingWriter : writer;
+    }
+
+}
@@ -1,28 +1,42 @@
 package com.structurizr.io.json;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.structurizr.Workspace;
 import com.structurizr.io.WorkspaceWriter;
 import com.structurizr.io.WorkspaceWriterException;
 
-import java.io.IOException;
-import java.io.Writer;
+import java.io.*;
 
 /**
- * Writes a workspace definition as a JSON string.
+ * Writes a workspace definition as a JSON string. The JSON is streamed to the target as it is
+ * generated, so the document is never held in memory as a whole.
  */
 public final class JsonWriter implements WorkspaceWriter {
 
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
     private boolean indentOutput = true;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
 
     public JsonWriter(boolean indentOutput) {
         this.indentOutput = indentOutput;
     }
 
+    /**
+     * Sets the size of the buffer used between the JSON generator and the target.
+     *
+     * @param bufferSize    the buffer size, in bytes or characters (default 8192)
+     */
+    public void setBufferSize(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be a positive number.");
+        }
+
+        this.bufferSize = bufferSize;
+    }
+
     /**
      * Writes a workspace definition as a JSON string to the specified Writer object.
+     * The writer is flushed, but not closed.
      *
      * @param workspace     the Workspace object to write
      * @param writer        the Writer object to write the workspace to
@@ -37,14 +51,34 @@ public final class JsonWriter implements WorkspaceWriter {
         }
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            if (indentOutput) {
-                objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-            }
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
-
-            writer.write(objectMapper.writeValueAsString(workspace));
+            BufferedWriter bufferedWriter = new BufferedWriter(writer, bufferSize);
+            JsonSerializationContext.getWriter(indentOutput).writeValue(bufferedWriter, workspace);
+            bufferedWriter.flush();
+        } catch (IOException ioe) {
+            throw new WorkspaceWriterException("Could not write as JSON", ioe);
+        }
+    }
+
+    /**
+     * Writes a workspace definition as UTF-8 encoded JSON to the specified OutputStream.
+     * The stream is flushed, but not closed.
+     *
+     * @param workspace     the Workspace object to write
+     * @param outputStream  the OutputStream to write the workspace to
+     * @throws WorkspaceWriterException     if something goes wrong
+     */
+    public void write(Workspace workspace, OutputStream outputStream) throws WorkspaceWriterException {
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace cannot be null.");
+        }
+        if (outputStream == null) {
+            throw new IllegalArgumentException("OutputStream cannot be null.");
+        }
+
+        try {
+            BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream, bufferSize);
+            JsonSerializationContext.getWriter(indentOutput).writeValue(bufferedOutputStream, workspace);
+            bufferedOutputStream.flush();
         } catch (IOException ioe) {
             throw new WorkspaceWriterException("Could not write as JSON", ioe);
         }
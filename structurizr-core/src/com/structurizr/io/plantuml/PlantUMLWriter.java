@@ -22,12 +22,12 @@ public final class PlantUMLWriter implements WorkspaceWriter {
     @Override
     public void write(Workspace workspace, Writer writer) throws WorkspaceWriterException {
         if (workspace != null && writer != null) {
-            workspace.getViews().getEnterpriseContextViews().forEach(v -> write(v, writer));
-            workspace.getViews().getSystemContextViews().forEach(v -> write(v, writer));
-            workspace.getViews().getContainerViews().forEach(v -> write(v, writer));
-            workspace.getViews().getComponentViews().forEach(v -> write(v, writer));
-            workspace.getViews().getDynamicViews().forEach(v -> write(v, writer));
-            workspace.getViews().getDeploymentViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableEnterpriseContextViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableSystemContextViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableContainerViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableComponentViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableDynamicViews().forEach(v -> write(v, writer));
+            workspace.getViews().getUnmodifiableDeploymentViews().forEach(v -> write(v, writer));
         }
     }
 
@@ -53,13 +53,13 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .filter(e -> e instanceof Person && ((Person)e).getLocation() == Location.External)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
                     .forEach(e -> write(e, writer, false));
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .filter(e -> e instanceof SoftwareSystem && ((SoftwareSystem)e).getLocation() == Location.External)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -68,13 +68,13 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("package " + nameOf(view.getModel().getEnterprise().getName()) + " {");
             writer.write(System.lineSeparator());
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .filter(e -> e instanceof Person && ((Person)e).getLocation() == Location.Internal)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
                     .forEach(e -> write(e, writer, true));
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .filter(e -> e instanceof SoftwareSystem && ((SoftwareSystem)e).getLocation() == Location.Internal)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -83,7 +83,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("}");
             writer.write(System.lineSeparator());
 
-            write(view.getRelationships(), writer);
+            write(view.getUnmodifiableRelationships(), writer);
 
             writeFooter(writer);
         } catch (IOException e) {
@@ -95,11 +95,11 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
                     .forEach(e -> write(e, writer, false));
-            write(view.getRelationships(), writer);
+            write(view.getUnmodifiableRelationships(), writer);
 
             writeFooter(writer);
         } catch (IOException e) {
@@ -111,7 +111,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .filter(ev -> !(ev.getElement() instanceof Container))
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -120,7 +120,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("package " + nameOf(view.getSoftwareSystem()) + " {");
             writer.write(System.lineSeparator());
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .filter(ev -> ev.getElement() instanceof Container)
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -129,7 +129,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("}");
             writer.write(System.lineSeparator());
 
-            write(view.getRelationships(), writer);
+            write(view.getUnmodifiableRelationships(), writer);
 
             writeFooter(writer);
         } catch (IOException e) {
@@ -141,7 +141,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .filter(ev -> !(ev.getElement() instanceof Component))
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -150,7 +150,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("package " + nameOf(view.getContainer()) + " {");
             writer.write(System.lineSeparator());
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .filter(ev -> ev.getElement() instanceof Component)
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
@@ -159,7 +159,7 @@ public final class PlantUMLWriter implements WorkspaceWriter {
             writer.write("}");
             writer.write(System.lineSeparator());
 
-            write(view.getRelationships(), writer);
+            write(view.getUnmodifiableRelationships(), writer);
 
             writeFooter(writer);
         } catch (IOException e) {
@@ -171,12 +171,12 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .map(ElementView::getElement)
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
                     .forEach(e -> write(e, writer, false));
 
-            view.getRelationships().stream()
+            view.getUnmodifiableRelationships().stream()
                     .sorted((rv1, rv2) -> (rv1.getOrder().compareTo(rv2.getOrder())))
                     .forEach(relationship -> {
                         try {
@@ -203,13 +203,13 @@ public final class PlantUMLWriter implements WorkspaceWriter {
         try {
             writeHeader(view, writer);
 
-            view.getElements().stream()
+            view.getUnmodifiableElements().stream()
                     .filter(ev -> ev.getElement() instanceof DeploymentNode && ev.getElement().getParent() == null)
                     .map(ev -> (DeploymentNode)ev.getElement())
                     .sorted((e1, e2) -> e1.getName().compareTo(e2.getName()))
                     .forEach(e -> write(e, writer, 0));
 
-            write(view.getRelationships(), writer);
+            write(view.getUnmodifiableRelationships(), writer);
 
             writeFooter(writer);
         } catch (IOException e) {
@@ -230,11 +230,11 @@ public final class PlantUMLWriter implements WorkspaceWriter {
 
             writer.write(System.lineSeparator());
 
-            for (DeploymentNode child : deploymentNode.getChildren()) {
+            for (DeploymentNode child : deploymentNode.getUnmodifiableChildren()) {
                 write(child, writer, indent+1);
             }
 
-            for (ContainerInstance containerInstance : deploymentNode.getContainerInstances()) {
+            for (ContainerInstance containerInstance : deploymentNode.getUnmodifiableContainerInstances()) {
                 write(containerInstance, writer, indent+1);
             }
 
@@ -29,7 +29,7 @@ public final class WebSequenceDiagramsWriter implements WorkspaceWriter {
     public void write(Workspace workspace, Writer writer) throws WorkspaceWriterException {
         if (workspace != null && writer != null) {
             try {
-                for (DynamicView view : workspace.getViews().getDynamicViews()) {
+                for (DynamicView view : workspace.getViews().getUnmodifiableDynamicViews()) {
                     write(view, writer);
                 }
             } catch (Exception e) {
@@ -44,7 +44,7 @@ public final class WebSequenceDiagramsWriter implements WorkspaceWriter {
         writer.write(System.lineSeparator());
 
         Set<RelationshipView> relationships = new TreeSet<>((rv1, rv2) -> rv1.getOrder().compareTo(rv2.getOrder()));
-        relationships.addAll(view.getRelationships());
+        relationships.addAll(view.getUnmodifiableRelationships());
 
         for (RelationshipView relationshipView : relationships) {
             Relationship r = relationshipView.getRelationship();
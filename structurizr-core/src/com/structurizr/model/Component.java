@@ -15,6 +15,8 @@ import java.util.*;
  */
 public class Component extends StaticStructureElement {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.COMPONENT)));
+
     private Container parent;
 
     private String technology;
@@ -37,6 +39,7 @@ public class Component extends StaticStructureElement {
 
     void setParent(Container parent) {
         this.parent = parent;
+        invalidateCanonicalName();
     }
 
     /**
@@ -84,6 +87,10 @@ public class Component extends StaticStructureElement {
         codeElement.setRole(CodeElementRole.Primary);
         this.codeElements.add(codeElement);
 
+        if (parent != null) {
+            parent.componentTypeChanged(this);
+        }
+
         return codeElement;
     }
 
@@ -152,13 +159,13 @@ public class Component extends StaticStructureElement {
     }
 
     @Override
-    public String getCanonicalName() {
+    protected String calculateCanonicalName() {
         return getParent().getCanonicalName() + CANONICAL_NAME_SEPARATOR + formatForCanonicalName(getName());
     }
 
     @Override
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.COMPONENT));
+        return REQUIRED_TAGS;
     }
 
 }
\ No newline at end of file
@@ -2,10 +2,7 @@ package com.structurizr.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import java.util.Arrays;
-import java.util.LinkedHashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 /**
  * A container represents something that hosts code or data. A container is
@@ -19,10 +16,14 @@ import java.util.Set;
  */
 public class Container extends StaticStructureElement {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.CONTAINER)));
+
     private SoftwareSystem parent;
     private String technology;
 
     private Set<Component> components = new LinkedHashSet<>();
+    private final Map<String, Component> componentsByName = new HashMap<>();
+    private final Map<String, Component> componentsByType = new HashMap<>();
 
     Container() {
     }
@@ -40,6 +41,7 @@ public class Container extends StaticStructureElement {
 
     void setParent(SoftwareSystem parent) {
         this.parent = parent;
+        invalidateCanonicalName();
     }
 
     /**
@@ -77,6 +79,19 @@ public class Container extends StaticStructureElement {
     void add(Component component) {
         if (getComponentWithName(component.getName()) == null) {
             components.add(component);
+            componentsByName.put(component.getName(), component);
+            componentTypeChanged(component);
+        }
+    }
+
+    void componentRenamed(Component component, String oldName) {
+        Model.reindex(componentsByName, components, component, oldName);
+    }
+
+    void componentTypeChanged(Component component) {
+        String type = component.getType();
+        if (type != null) {
+            componentsByType.putIfAbsent(type, component);
         }
     }
 
@@ -94,8 +109,7 @@ public class Container extends StaticStructureElement {
             return null;
         }
 
-        Optional<Component> component = components.stream().filter(c -> name.equals(c.getName())).findFirst();
-        return component.orElse(null);
+        return componentsByName.get(name);
     }
 
     public Component getComponentOfType(String type) {
@@ -103,18 +117,23 @@ public class Container extends StaticStructureElement {
             return null;
         }
 
-        Optional<Component> component = components.stream().filter(c -> type.equals(c.getType())).findFirst();
-        return component.orElse(null);
+        Component component = componentsByType.get(type);
+        if (component == null || type.equals(component.getType())) {
+            return component;
+        }
+
+        // the indexed component has since been given a different primary type, so fall back to a scan
+        return components.stream().filter(c -> type.equals(c.getType())).findFirst().orElse(null);
     }
 
     @Override
-    public String getCanonicalName() {
+    protected String calculateCanonicalName() {
         return getParent().getCanonicalName() + CANONICAL_NAME_SEPARATOR + formatForCanonicalName(getName());
     }
 
     @Override
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.CONTAINER));
+        return REQUIRED_TAGS;
     }
 
 }
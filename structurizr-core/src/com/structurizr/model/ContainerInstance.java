@@ -3,6 +3,7 @@ package com.structurizr.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -12,10 +13,17 @@ import java.util.Set;
  */
 public class ContainerInstance extends Element {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.CONTAINER_INSTANCE)));
+
     private Container container;
     private String containerId;
     private int instanceId;
 
+    // the container's tags followed by the tags of this instance, rebuilt when either set changes
+    private Set<String> containerTags;
+    private Set<String> instanceTags;
+    private Set<String> tagsAsSet;
+
     ContainerInstance() {
     }
 
@@ -31,6 +39,7 @@ public class ContainerInstance extends Element {
 
     void setContainer(Container container) {
         this.container = container;
+        invalidateCanonicalName();
     }
 
     /**
@@ -66,17 +75,33 @@ public class ContainerInstance extends Element {
     @Override
     @JsonIgnore
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<>(Arrays.asList(Tags.CONTAINER_INSTANCE));
+        return REQUIRED_TAGS;
     }
 
     @Override
     public String getTags() {
-        return container.getTags() + "," + super.getTags();
+        return String.join(",", getTagsAsSet());
     }
 
     @Override
     @JsonIgnore
-    public String getCanonicalName() {
+    public Set<String> getTagsAsSet() {
+        Set<String> containerTags = container.getTagsAsSet();
+        Set<String> instanceTags = super.getTagsAsSet();
+        if (tagsAsSet == null || containerTags != this.containerTags || instanceTags != this.instanceTags) {
+            Set<String> setOfTags = new LinkedHashSet<>(containerTags);
+            setOfTags.addAll(instanceTags);
+
+            this.containerTags = containerTags;
+            this.instanceTags = instanceTags;
+            this.tagsAsSet = Collections.unmodifiableSet(setOfTags);
+        }
+
+        return tagsAsSet;
+    }
+
+    @Override
+    protected String calculateCanonicalName() {
         return container.getCanonicalName() + "[" + instanceId + "]";
     }
 
@@ -2,6 +2,8 @@ package com.structurizr.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -25,6 +27,7 @@ public class DeploymentNode extends Element {
 
     private DeploymentNode parent;
     private Set<DeploymentNode> children = new HashSet<>();
+    private final Map<String, DeploymentNode> childrenByName = new HashMap<>();
 
     private String technology;
     private int instances = 1;
@@ -39,6 +42,7 @@ public class DeploymentNode extends Element {
 
     void setParent(DeploymentNode parent) {
         this.parent = parent;
+        invalidateCanonicalName();
     }
 
     public String getTechnology() {
@@ -68,7 +72,13 @@ public class DeploymentNode extends Element {
     }
 
     @Override
-    public String getCanonicalName() {
+    @JsonIgnore
+    public Set<String> getTagsAsSet() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    protected String calculateCanonicalName() {
         if (getParent() != null) {
             return getParent().getCanonicalName() + CANONICAL_NAME_SEPARATOR + formatForCanonicalName(getName());
         } else {
@@ -77,16 +87,27 @@ public class DeploymentNode extends Element {
     }
 
     public ContainerInstance add(Container container) {
-        ContainerInstance containerInstance = getModel().addContainerInstance(container);
-        this.containerInstances.add(containerInstance);
+        return getModel().addContainerInstance(this, container);
+    }
 
-        return containerInstance;
+    void add(ContainerInstance containerInstance) {
+        this.containerInstances.add(containerInstance);
     }
 
     public Set<ContainerInstance> getContainerInstances() {
         return new HashSet<>(containerInstances);
     }
 
+    /**
+     * Gets the container instances on this deployment node, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Set
+     */
+    @JsonIgnore
+    public Set<ContainerInstance> getUnmodifiableContainerInstances() {
+        return Collections.unmodifiableSet(containerInstances);
+    }
+
     public DeploymentNode addDeploymentNode(String name, String description, String technology) {
         return addDeploymentNode(name, description, technology, 1);
     }
@@ -96,33 +117,42 @@ public class DeploymentNode extends Element {
     }
 
     public DeploymentNode addDeploymentNode(String name, String description, String technology, int instances, Map<String, String> properties) {
-        DeploymentNode deploymentNode = getModel().addDeploymentNode(this, name, description, technology, instances, properties);
-        if (deploymentNode != null) {
-            children.add(deploymentNode);
-        }
-        return deploymentNode;
+        return getModel().addDeploymentNode(this, name, description, technology, instances, properties);
     }
 
     public Set<DeploymentNode> getChildren() {
         return new HashSet<>(children);
     }
 
+    /**
+     * Gets the child deployment nodes, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Set
+     */
+    @JsonIgnore
+    public Set<DeploymentNode> getUnmodifiableChildren() {
+        return Collections.unmodifiableSet(children);
+    }
+
     void setChildren(Set<DeploymentNode> children) {
         this.children = children;
     }
 
+    void addChild(DeploymentNode deploymentNode) {
+        children.add(deploymentNode);
+        childrenByName.putIfAbsent(deploymentNode.getName(), deploymentNode);
+    }
+
+    void childRenamed(DeploymentNode deploymentNode, String oldName) {
+        Model.reindex(childrenByName, children, deploymentNode, oldName);
+    }
+
     /**
      * @param name the name of the deployment node
      * @return the DeploymentNode instance with the specified name (or null if it doesn't exist).
      */
     public DeploymentNode getDeploymentNodeWithName(String name) {
-        for (DeploymentNode deploymentNode : getChildren()) {
-            if (deploymentNode.getName().equals(name)) {
-                return deploymentNode;
-            }
-        }
-
-        return null;
+        return childrenByName.get(name);
     }
 
     public Relationship uses(DeploymentNode destination, String description, String technology) {
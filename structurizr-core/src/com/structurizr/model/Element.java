@@ -5,6 +5,7 @@ import com.structurizr.util.Url;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -27,6 +28,9 @@ public abstract class Element extends Taggable {
 
     private Set<Relationship> relationships = new LinkedHashSet<>();
 
+    private String canonicalName;
+    private int canonicalNameVersion;
+
     protected Element() {
     }
 
@@ -37,6 +41,7 @@ public abstract class Element extends Taggable {
 
     protected void setModel(Model model) {
         this.model = model;
+        this.canonicalName = null;
     }
 
     /**
@@ -71,7 +76,13 @@ public abstract class Element extends Taggable {
             throw new IllegalArgumentException("The name of an element must not be null or empty.");
         }
 
+        String oldName = this.name;
         this.name = name;
+        invalidateCanonicalName();
+
+        if (model != null && oldName != null && !oldName.equals(name)) {
+            model.elementRenamed(this, oldName);
+        }
     }
 
     /**
@@ -132,8 +143,37 @@ public abstract class Element extends Taggable {
         }
     }
 
+    /**
+     * Gets the canonical name of this element (e.g. "/Software System/Container/Component").
+     * The canonical name is calculated once and cached until this element, or one of its
+     * ancestors, is renamed or moved to a different parent.
+     *
+     * @return  the canonical name, as a String
+     */
     @JsonIgnore
-    public abstract String getCanonicalName();
+    public String getCanonicalName() {
+        int version = model != null ? model.getCanonicalNameVersion() : 0;
+        if (canonicalName == null || canonicalNameVersion != version) {
+            canonicalName = calculateCanonicalName();
+            canonicalNameVersion = version;
+        }
+
+        return canonicalName;
+    }
+
+    protected abstract String calculateCanonicalName();
+
+    /**
+     * Called whenever the name or parent of this element changes; since the canonical names
+     * of any descendants change too, all cached canonical names in the model are invalidated.
+     */
+    void invalidateCanonicalName() {
+        this.canonicalName = null;
+
+        if (model != null) {
+            model.canonicalNamesChanged();
+        }
+    }
 
     String formatForCanonicalName(String name) {
         return name.replace(CANONICAL_NAME_SEPARATOR, "");
@@ -173,13 +213,23 @@ public abstract class Element extends Taggable {
         return new LinkedHashSet<>(relationships);
     }
 
+    /**
+     * Gets the outgoing relationships, as a read-only view that reflects later changes (i.e. the set isn't copied).
+     *
+     * @return  an unmodifiable Set
+     */
+    @JsonIgnore
+    public Set<Relationship> getUnmodifiableRelationships() {
+        return Collections.unmodifiableSet(relationships);
+    }
+
     /**
      * Determines whether this element has afferent (incoming) relationships.
      *
      * @return  true if this element has afferent relationships, false otherwise
      */
     public boolean hasAfferentRelationships() {
-        return getModel().getRelationships().stream().filter(r -> r.getDestination() == this).count() > 0;
+        return !getModel().getAfferentRelationships(this).isEmpty();
     }
 
     /**
@@ -0,0 +1,140 @@
+package com.structurizr.model;
+
+import java.util.*;
+
+/**
+ * Propagates relationships from children to their parents. For example, a relationship between two
+ * components in different software systems implies relationships between their containers and
+ * between the software systems themselves.
+ *
+ * The lineage (an element plus its ancestors) of each element is calculated once per run, and
+ * existing source/destination pairs are tracked in a hash index so that checking whether an implied
+ * relationship already exists doesn't require a scan of the source element's relationships.
+ */
+final class ImplicitRelationshipEngine {
+
+    private final Model model;
+
+    /** destination element IDs, keyed on source element ID (built on first use) */
+    private Map<String, Set<String>> destinationIdsBySourceId;
+
+    ImplicitRelationshipEngine(Model model) {
+        this.model = model;
+    }
+
+    /**
+     * Adds the implied relationships for every relationship in the model.
+     *
+     * @return  the set of implicit relationships that were added
+     */
+    Set<Relationship> addImplicitRelationships() {
+        Map<String, List<Element>> lineages = new HashMap<>();
+        Set<Relationship> implicitRelationships = new HashSet<>();
+
+        for (Relationship relationship : model.getRelationships()) {
+            addImplicitRelationships(relationship, lineages, implicitRelationships);
+        }
+
+        return implicitRelationships;
+    }
+
+    /**
+     * Adds the implied relationships for a single relationship, which only requires
+     * the lineages of its source and destination.
+     *
+     * @param relationship  the relationship to propagate
+     * @return  the set of implicit relationships that were added
+     */
+    Set<Relationship> addImplicitRelationships(Relationship relationship) {
+        Set<Relationship> implicitRelationships = new HashSet<>();
+        addImplicitRelationships(relationship, new HashMap<>(), implicitRelationships);
+
+        return implicitRelationships;
+    }
+
+    /**
+     * Called by the model whenever a relationship is added, to keep the source/destination index up to date.
+     */
+    void relationshipAdded(Relationship relationship) {
+        if (destinationIdsBySourceId != null) {
+            index(relationship);
+        }
+    }
+
+    private void addImplicitRelationships(Relationship relationship, Map<String, List<Element>> lineages, Set<Relationship> implicitRelationships) {
+        List<Element> sources = getLineage(relationship.getSource(), lineages);
+        List<Element> destinations = getLineage(relationship.getDestination(), lineages);
+
+        for (Element source : sources) {
+            for (Element destination : destinations) {
+                if (!relationshipExists(source, destination) && propagatedRelationshipIsAllowed(source, destination)) {
+                    Relationship implicitRelationship = model.addImplicitRelationship(source, destination);
+                    if (implicitRelationship != null) {
+                        implicitRelationships.add(implicitRelationship);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Element> getLineage(Element element, Map<String, List<Element>> lineages) {
+        List<Element> lineage = lineages.get(element.getId());
+        if (lineage == null) {
+            lineage = new ArrayList<>(3);
+            while (element != null) {
+                lineage.add(element);
+                element = element.getParent();
+            }
+            lineages.put(lineage.get(0).getId(), lineage);
+        }
+
+        return lineage;
+    }
+
+    private boolean relationshipExists(Element source, Element destination) {
+        if (destinationIdsBySourceId == null) {
+            destinationIdsBySourceId = new HashMap<>();
+            model.getUnmodifiableRelationships().forEach(this::index);
+        }
+
+        Set<String> destinationIds = destinationIdsBySourceId.get(source.getId());
+        return destinationIds != null && destinationIds.contains(destination.getId());
+    }
+
+    private void index(Relationship relationship) {
+        destinationIdsBySourceId.computeIfAbsent(relationship.getSourceId(), id -> new HashSet<>()).add(relationship.getDestinationId());
+    }
+
+    private boolean propagatedRelationshipIsAllowed(Element source, Element destination) {
+        if (source.equals(destination)) {
+            return false;
+        }
+
+        if (source.getParent() != null) {
+            if (destination.equals(source.getParent())) {
+                return false;
+            }
+
+            if (source.getParent().getParent() != null) {
+                if (destination.equals(source.getParent().getParent())) {
+                    return false;
+                }
+            }
+        }
+
+        if (destination.getParent() != null) {
+            if (source.equals(destination.getParent())) {
+                return false;
+            }
+
+            if (destination.getParent().getParent() != null) {
+                if (source.equals(destination.getParent().getParent())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -3,6 +3,7 @@ package com.structurizr.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -14,6 +15,8 @@ public class Model {
 
     private final Map<String, Element> elementsById = new HashMap<>();
     private final Map<String, Relationship> relationshipsById = new HashMap<>();
+    private final Map<String, Set<Relationship>> efferentRelationshipsByElementId = new HashMap<>();
+    private final Map<String, Set<Relationship>> afferentRelationshipsByElementId = new HashMap<>();
 
     private Enterprise enterprise;
 
@@ -21,6 +24,19 @@ public class Model {
     private Set<SoftwareSystem> softwareSystems = new LinkedHashSet<>();
     private Set<DeploymentNode> deploymentNodes = new LinkedHashSet<>();
 
+    private final Map<String, Person> peopleByName = new HashMap<>();
+    private final Map<String, SoftwareSystem> softwareSystemsByName = new HashMap<>();
+    private final Map<String, DeploymentNode> deploymentNodesByName = new HashMap<>();
+
+    private int canonicalNameVersion = 0;
+
+    private final TagDictionary tagDictionary = new TagDictionary();
+
+    private final ImplicitRelationshipEngine implicitRelationshipEngine = new ImplicitRelationshipEngine(this);
+    private boolean addImplicitRelationshipsAutomatically = false;
+
+    private final List<ModelListener> modelListeners = new CopyOnWriteArrayList<>();
+
     public Model() {
     }
 
@@ -61,9 +77,11 @@ public class Model {
             softwareSystem.setDescription(description);
 
             softwareSystems.add(softwareSystem);
+            softwareSystemsByName.put(name, softwareSystem);
 
             softwareSystem.setId(idGenerator.generateId(softwareSystem));
             addElementToInternalStructures(softwareSystem);
+            fireElementAdded(softwareSystem);
 
             return softwareSystem;
         } else {
@@ -100,9 +118,11 @@ public class Model {
             person.setDescription(description);
 
             people.add(person);
+            peopleByName.put(name, person);
 
             person.setId(idGenerator.generateId(person));
             addElementToInternalStructures(person);
+            fireElementAdded(person);
 
             return person;
         } else {
@@ -122,6 +142,7 @@ public class Model {
 
             container.setId(idGenerator.generateId(container));
             addElementToInternalStructures(container);
+            fireElementAdded(container);
 
             return container;
         } else {
@@ -141,6 +162,7 @@ public class Model {
 
         component.setId(idGenerator.generateId(component));
         addElementToInternalStructures(component);
+        fireElementAdded(component);
 
         return component;
     }
@@ -155,6 +177,7 @@ public class Model {
 
         component.setId(idGenerator.generateId(component));
         addElementToInternalStructures(component);
+        fireElementAdded(component);
 
         return component;
     }
@@ -169,6 +192,19 @@ public class Model {
 
     Relationship addRelationship(Element source, Element destination, String description, String technology, InteractionStyle interactionStyle) {
         Relationship relationship = new Relationship(source, destination, description, technology, interactionStyle);
+        if (addRelationship(relationship)) {
+            if (addImplicitRelationshipsAutomatically) {
+                implicitRelationshipEngine.addImplicitRelationships(relationship);
+            }
+
+            return relationship;
+        } else {
+            return null;
+        }
+    }
+
+    Relationship addImplicitRelationship(Element source, Element destination) {
+        Relationship relationship = new Relationship(source, destination, "", null, InteractionStyle.Synchronous);
         if (addRelationship(relationship)) {
             return relationship;
         } else {
@@ -182,6 +218,7 @@ public class Model {
             relationship.getSource().addRelationship(relationship);
 
             addRelationshipToInternalStructures(relationship);
+            fireRelationshipAdded(relationship);
             return true;
         } else {
             return false;
@@ -191,14 +228,51 @@ public class Model {
     private void addElementToInternalStructures(Element element) {
         elementsById.put(element.getId(), element);
         element.setModel(this);
+        element.useTagDictionary(tagDictionary);
         idGenerator.found(element.getId());
     }
 
     private void addRelationshipToInternalStructures(Relationship relationship) {
         relationshipsById.put(relationship.getId(), relationship);
+        relationship.useTagDictionary(tagDictionary);
+        efferentRelationshipsByElementId.computeIfAbsent(relationship.getSourceId(), id -> new LinkedHashSet<>()).add(relationship);
+        afferentRelationshipsByElementId.computeIfAbsent(relationship.getDestinationId(), id -> new LinkedHashSet<>()).add(relationship);
+        implicitRelationshipEngine.relationshipAdded(relationship);
         idGenerator.found(relationship.getId());
     }
 
+    /**
+     * Registers a listener to be notified of elements and relationships added to this model.
+     *
+     * @param modelListener     a ModelListener
+     */
+    public void addModelListener(ModelListener modelListener) {
+        if (modelListener != null) {
+            modelListeners.add(modelListener);
+        }
+    }
+
+    /**
+     * Unregisters a listener previously registered with {@link #addModelListener(ModelListener)}.
+     *
+     * @param modelListener     a ModelListener
+     */
+    public void removeModelListener(ModelListener modelListener) {
+        modelListeners.remove(modelListener);
+    }
+
+    private void fireElementAdded(Element element) {
+        for (ModelListener modelListener : modelListeners) {
+            modelListener.elementAdded(element);
+        }
+    }
+
+    private void fireRelationshipAdded(Relationship relationship) {
+        for (ModelListener modelListener : modelListeners) {
+            modelListener.relationshipAdded(relationship);
+        }
+    }
+
     /**
      * @return a set containing all elements in this model.
      */
@@ -207,6 +281,17 @@ public class Model {
         return new HashSet<>(this.elementsById.values());
     }
 
+    /**
+     * Gets all of the elements in this model, without copying them. The returned collection
+     * is read-only, and reflects elements that are added to the model later on.
+     *
+     * @return  an unmodifiable Collection of Element objects
+     */
+    @JsonIgnore
+    public Collection<Element> getUnmodifiableElements() {
+        return Collections.unmodifiableCollection(this.elementsById.values());
+    }
+
     /**
      * @param id the {@link Element#getId()} of the element
      * @return the element in this model with the specified ID (or null if it doesn't exist).
@@ -224,6 +309,17 @@ public class Model {
         return new HashSet<>(this.relationshipsById.values());
     }
 
+    /**
+     * Gets all of the relationships in this model, without copying them. As with
+     * {@link #getUnmodifiableElements()}, the returned collection is a read-only, live view.
+     *
+     * @return  an unmodifiable Collection of Relationship objects
+     */
+    @JsonIgnore
+    public Collection<Relationship> getUnmodifiableRelationships() {
+        return Collections.unmodifiableCollection(this.relationshipsById.values());
+    }
+
     /**
      * @param id the {@link Relationship#getId()} of the relationship
      * @return the relationship in this model with the specified ID (or null if it doesn't exist).
@@ -233,6 +329,37 @@ public class Model {
         return relationshipsById.get(id);
     }
 
+    /**
+     * Gets the efferent (outgoing) relationships of the specified element.
+     *
+     * @param element   an element in this model
+     * @return  an unmodifiable Set of Relationship objects (empty if there are none)
+     */
+    public Set<Relationship> getEfferentRelationships(Element element) {
+        return relationshipsOf(efferentRelationshipsByElementId, element);
+    }
+
+    /**
+     * Gets the afferent (incoming) relationships of the specified element.
+     *
+     * @param element   an element in this model
+     * @return  an unmodifiable Set of Relationship objects (empty if there are none)
+     */
+    public Set<Relationship> getAfferentRelationships(Element element) {
+        return relationshipsOf(afferentRelationshipsByElementId, element);
+    }
+
+    private Set<Relationship> relationshipsOf(Map<String, Set<Relationship>> relationshipsByElementId, Element element) {
+        if (element != null) {
+            Set<Relationship> relationships = relationshipsByElementId.get(element.getId());
+            if (relationships != null) {
+                return Collections.unmodifiableSet(relationships);
+            }
+        }
+
+        return Collections.emptySet();
+    }
+
     /**
      * @return a collection containing all of the Person instances in this model.
      */
@@ -240,6 +367,14 @@ public class Model {
         return new LinkedHashSet<>(people);
     }
 
+    /**
+     * @return a read-only view (rather than a copy) of the Person instances in this model.
+     */
+    @JsonIgnore
+    public Collection<Person> getUnmodifiablePeople() {
+        return Collections.unmodifiableSet(people);
+    }
+
     /**
      * @return a collection containing all of the SoftwareSystem instances in this model.
      */
@@ -247,6 +382,14 @@ public class Model {
         return new LinkedHashSet<>(softwareSystems);
     }
 
+    /**
+     * @return a read-only view (rather than a copy) of the SoftwareSystem instances in this model.
+     */
+    @JsonIgnore
+    public Set<SoftwareSystem> getUnmodifiableSoftwareSystems() {
+        return Collections.unmodifiableSet(softwareSystems);
+    }
+
     /**
      * @return a collection containing all of the DeploymentNode instances in this model.
      */
@@ -254,66 +397,133 @@ public class Model {
         return new LinkedHashSet<>(deploymentNodes);
     }
 
+    /**
+     * @return a read-only view (rather than a copy) of the top-level DeploymentNode instances in this model.
+     */
+    @JsonIgnore
+    public Set<DeploymentNode> getUnmodifiableDeploymentNodes() {
+        return Collections.unmodifiableSet(deploymentNodes);
+    }
+
     public void hydrate() {
-        // add all of the elements to the model
-        people.forEach(this::addElementToInternalStructures);
+        // a single walk of the element tree registers every element by ID (and name) and records the
+        // order in which they were found, so that relationships can then be resolved in that same order
+        List<Element> elements = new ArrayList<>();
+
+        for (Person person : people) {
+            addElementToInternalStructures(person);
+            peopleByName.put(person.getName(), person);
+            elements.add(person);
+        }
+
         for (SoftwareSystem softwareSystem : softwareSystems) {
             addElementToInternalStructures(softwareSystem);
+            softwareSystemsByName.put(softwareSystem.getName(), softwareSystem);
+            elements.add(softwareSystem);
             for (Container container : softwareSystem.getContainers()) {
                 softwareSystem.add(container);
                 addElementToInternalStructures(container);
                 container.setParent(softwareSystem);
+                elements.add(container);
                 for (Component component : container.getComponents()) {
                     container.add(component);
                     addElementToInternalStructures(component);
                     component.setParent(container);
+                    elements.add(component);
                 }
             }
         }
 
-        deploymentNodes.forEach(dn -> hydrateDeploymentNode(dn, null));
-
-        // now hydrate the relationships
-        people.forEach(this::hydrateRelationships);
-        for (SoftwareSystem softwareSystem : softwareSystems) {
-            hydrateRelationships(softwareSystem);
-            for (Container container : softwareSystem.getContainers()) {
-                hydrateRelationships(container);
-                for (Component component : container.getComponents()) {
-                    hydrateRelationships(component);
-                }
-            }
+        for (DeploymentNode deploymentNode : deploymentNodes) {
+            hydrateDeploymentNode(deploymentNode, null, elements);
+            deploymentNodesByName.put(deploymentNode.getName(), deploymentNode);
         }
 
-        deploymentNodes.forEach(this::hydrateDeploymentNodeRelationships);
+        // now hydrate the relationships
+        elements.forEach(this::hydrateRelationships);
     }
 
-    private void hydrateDeploymentNode(DeploymentNode deploymentNode, DeploymentNode parent) {
+    private void hydrateDeploymentNode(DeploymentNode deploymentNode, DeploymentNode parent, List<Element> elements) {
         deploymentNode.setParent(parent);
         addElementToInternalStructures(deploymentNode);
+        elements.add(deploymentNode);
 
-        deploymentNode.getChildren().forEach(child -> hydrateDeploymentNode(child, deploymentNode));
+        for (DeploymentNode child : deploymentNode.getChildren()) {
+            hydrateDeploymentNode(child, deploymentNode, elements);
+            deploymentNode.addChild(child);
+        }
 
         for (ContainerInstance containerInstance : deploymentNode.getContainerInstances()) {
             containerInstance.setContainer((Container)getElement(containerInstance.getContainerId()));
             addElementToInternalStructures(containerInstance);
+            elements.add(containerInstance);
         }
     }
 
-    private void hydrateDeploymentNodeRelationships(DeploymentNode deploymentNode) {
-        hydrateRelationships(deploymentNode);
-        deploymentNode.getChildren().forEach(this::hydrateDeploymentNodeRelationships);
-        deploymentNode.getContainerInstances().forEach(this::hydrateRelationships);
-    }
-
     private void hydrateRelationships(Element element) {
-        for (Relationship relationship : element.getRelationships()) {
+        for (Relationship relationship : element.getUnmodifiableRelationships()) {
             relationship.setSource(getElement(relationship.getSourceId()));
             relationship.setDestination(getElement(relationship.getDestinationId()));
             addRelationshipToInternalStructures(relationship);
         }
     }
 
+    /**
+     * Keeps the name indexes (here and in the parent elements) up to date when an element is renamed.
+     */
+    void elementRenamed(Element element, String oldName) {
+        if (element instanceof Person) {
+            reindex(peopleByName, people, (Person)element, oldName);
+        } else if (element instanceof SoftwareSystem) {
+            reindex(softwareSystemsByName, softwareSystems, (SoftwareSystem)element, oldName);
+        } else if (element instanceof Container) {
+            Container container = (Container)element;
+            if (container.getSoftwareSystem() != null) {
+                container.getSoftwareSystem().containerRenamed(container, oldName);
+            }
+        } else if (element instanceof Component) {
+            Component component = (Component)element;
+            if (component.getContainer() != null) {
+                component.getContainer().componentRenamed(component, oldName);
+            }
+        } else if (element instanceof DeploymentNode) {
+            DeploymentNode deploymentNode = (DeploymentNode)element;
+            if (deploymentNode.getParent() != null) {
+                ((DeploymentNode)deploymentNode.getParent()).childRenamed(deploymentNode, oldName);
+            } else {
+                reindex(deploymentNodesByName, deploymentNodes, deploymentNode, oldName);
+            }
+        }
+    }
+
+    /**
+     * Other elements may share the old or the new name, so both are indexed again against the first
+     * element with that name (which is what a scan through the collection would find).
+     */
+    static <T extends Element> void reindex(Map<String, T> elementsByName, Collection<T> elements, T element, String oldName) {
+        index(elementsByName, elements, oldName);
+        index(elementsByName, elements, element.getName());
+    }
+
+    private static <T extends Element> void index(Map<String, T> elementsByName, Collection<T> elements, String name) {
+        for (T element : elements) {
+            if (name.equals(element.getName())) {
+                elementsByName.put(name, element);
+                return;
+            }
+        }
+
+        elementsByName.remove(name);
+    }
+
+    int getCanonicalNameVersion() {
+        return canonicalNameVersion;
+    }
+
+    void canonicalNamesChanged() {
+        canonicalNameVersion++;
+    }
+
     /**
      * Determines whether this model contains the specified element.
      *
@@ -329,13 +539,7 @@ public class Model {
      * @return the SoftwareSystem instance with the specified name (or null if it doesn't exist).
      */
     public SoftwareSystem getSoftwareSystemWithName(String name) {
-        for (SoftwareSystem softwareSystem : getSoftwareSystems()) {
-            if (softwareSystem.getName().equals(name)) {
-                return softwareSystem;
-            }
-        }
-
-        return null;
+        return softwareSystemsByName.get(name);
     }
 
     /**
@@ -344,13 +548,12 @@ public class Model {
      * @see SoftwareSystem#getId()
      */
     public SoftwareSystem getSoftwareSystemWithId(String id) {
-        for (SoftwareSystem softwareSystem : getSoftwareSystems()) {
-            if (softwareSystem.getId().equals(id)) {
-                return softwareSystem;
-            }
+        Element element = getElement(id);
+        if (element instanceof SoftwareSystem) {
+            return (SoftwareSystem)element;
+        } else {
+            return null;
         }
-
-        return null;
     }
 
     /**
@@ -358,13 +561,7 @@ public class Model {
      * @return the Person instance with the specified name (or null if it doesn't exist).
      */
     public Person getPersonWithName(String name) {
-        for (Person person : getPeople()) {
-            if (person.getName().equals(name)) {
-                return person;
-            }
-        }
-
-        return null;
+        return peopleByName.get(name);
     }
 
     /**
@@ -375,64 +572,23 @@ public class Model {
      * @return a set of all implicit relationships
      */
     public Set<Relationship> addImplicitRelationships() {
-        Set<Relationship> implicitRelationships = new HashSet<>();
-
-        for (Relationship relationship : getRelationships()) {
-            Element source = relationship.getSource();
-            Element destination = relationship.getDestination();
-
-            while (source != null) {
-                while (destination != null) {
-                    if (!source.hasEfferentRelationshipWith(destination)) {
-                        if (propagatedRelationshipIsAllowed(source, destination)) {
-                            Relationship implicitRelationship = addRelationship(source, destination, "");
-                            if (implicitRelationship != null) {
-                                implicitRelationships.add(implicitRelationship);
-                            }
-                        }
-                    }
-
-                    destination = destination.getParent();
-                }
-
-                destination = relationship.getDestination();
-                source = source.getParent();
-            }
-        }
-
-        return implicitRelationships;
+        return implicitRelationshipEngine.addImplicitRelationships();
     }
 
-    private boolean propagatedRelationshipIsAllowed(Element source, Element destination) {
-        if (source.equals(destination)) {
-            return false;
-        }
-
-        if (source.getParent() != null) {
-            if (destination.equals(source.getParent())) {
-                return false;
-            }
-
-            if (source.getParent().getParent() != null) {
-                if (destination.equals(source.getParent().getParent())) {
-                    return false;
-                }
-            }
-        }
-
-        if (destination.getParent() != null) {
-            if (source.equals(destination.getParent())) {
-                return false;
-            }
-
-            if (destination.getParent().getParent() != null) {
-                if (source.equals(destination.getParent().getParent())) {
-                    return false;
-                }
-            }
-        }
+    /**
+     * Specifies whether implicit relationships should be added as each relationship is added to the model,
+     * rather than by calling {@link #addImplicitRelationships()} once the model is complete. In this mode,
+     * only the ancestors of the new relationship's source and destination are considered.
+     *
+     * @param addImplicitRelationshipsAutomatically     true to propagate relationships as they are added, false otherwise
+     */
+    public void setAddImplicitRelationshipsAutomatically(boolean addImplicitRelationshipsAutomatically) {
+        this.addImplicitRelationshipsAutomatically = addImplicitRelationshipsAutomatically;
+    }
 
-        return true;
+    @JsonIgnore
+    public boolean isAddImplicitRelationshipsAutomatically() {
+        return addImplicitRelationshipsAutomatically;
     }
 
     @JsonIgnore
@@ -466,10 +622,14 @@ public class Model {
 
             if (parent == null) {
                 deploymentNodes.add(deploymentNode);
+                deploymentNodesByName.put(name, deploymentNode);
+            } else {
+                parent.addChild(deploymentNode);
             }
 
             deploymentNode.setId(idGenerator.generateId(deploymentNode));
             addElementToInternalStructures(deploymentNode);
+            fireElementAdded(deploymentNode);
 
             return deploymentNode;
         } else {
@@ -482,16 +642,10 @@ public class Model {
      * @return the DeploymentNode instance with the specified name (or null if it doesn't exist).
      */
     public DeploymentNode getDeploymentNodeWithName(String name) {
-        for (DeploymentNode deploymentNode : getDeploymentNodes()) {
-            if (deploymentNode.getName().equals(name)) {
-                return deploymentNode;
-            }
-        }
-
-        return null;
+        return deploymentNodesByName.get(name);
     }
 
-    ContainerInstance addContainerInstance(Container container) {
+    ContainerInstance addContainerInstance(DeploymentNode deploymentNode, Container container) {
         if (container == null) {
             throw new IllegalArgumentException("A container must be specified.");
         }
@@ -502,7 +656,7 @@ public class Model {
         containerInstance.setId(idGenerator.generateId(containerInstance));
 
         // find all ContainerInstance objects
-        Set<ContainerInstance> containerInstances = getElements().stream()
+        Set<ContainerInstance> containerInstances = getUnmodifiableElements().stream()
                 .filter(e -> e instanceof ContainerInstance)
                 .map(e -> (ContainerInstance)e)
                 .collect(Collectors.toSet());
@@ -511,13 +665,13 @@ public class Model {
         for (ContainerInstance ci : containerInstances) {
             Container c = ci.getContainer();
 
-            for (Relationship relationship : container.getRelationships()) {
+            for (Relationship relationship : container.getUnmodifiableRelationships()) {
                 if (relationship.getDestination().equals(c)) {
                     addRelationship(containerInstance, ci, relationship.getDescription(), relationship.getTechnology(), relationship.getInteractionStyle());
                 }
             }
 
-            for (Relationship relationship : c.getRelationships()) {
+            for (Relationship relationship : c.getUnmodifiableRelationships()) {
                 if (relationship.getDestination().equals(container)) {
                     addRelationship(ci, containerInstance, relationship.getDescription(), relationship.getTechnology(), relationship.getInteractionStyle());
                 }
@@ -525,6 +679,8 @@ public class Model {
         }
 
         addElementToInternalStructures(containerInstance);
+        deploymentNode.add(containerInstance);
+        fireElementAdded(containerInstance);
 
         return containerInstance;
     }
@@ -0,0 +1,26 @@
+package com.structurizr.model;
+
+/**
+ * Receives notifications of changes made to a {@link Model}. Listeners are called synchronously,
+ * once the element or relationship has been fully added to the model.
+ */
+public interface ModelListener {
+
+    /**
+     * Called when an element (person, software system, container, component, deployment node
+     * or container instance) is added to the model.
+     *
+     * @param element   the Element that was added
+     */
+    default void elementAdded(Element element) {
+    }
+
+    /**
+     * Called when a relationship is added to the model, including implied relationships.
+     *
+     * @param relationship  the Relationship that was added
+     */
+    default void relationshipAdded(Relationship relationship) {
+    }
+
+}
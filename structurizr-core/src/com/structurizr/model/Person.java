@@ -3,6 +3,7 @@ package com.structurizr.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -15,6 +16,8 @@ import java.util.Set;
  */
 public class Person extends StaticStructureElement {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.PERSON)));
+
     private Location location = Location.Unspecified;
 
     @Override
@@ -44,13 +47,13 @@ public class Person extends StaticStructureElement {
     }
 
     @Override
-    public String getCanonicalName() {
+    protected String calculateCanonicalName() {
         return CANONICAL_NAME_SEPARATOR + formatForCanonicalName(getName());
     }
 
     @Override
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.PERSON));
+        return REQUIRED_TAGS;
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.structurizr.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -11,6 +12,8 @@ import java.util.Set;
  */
 public class Relationship extends Taggable {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.RELATIONSHIP)));
+
     protected String id = "";
 
     private Element source;
@@ -145,7 +148,7 @@ public class Relationship extends Taggable {
 
     @Override
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<String>(Arrays.asList(Tags.RELATIONSHIP));
+        return REQUIRED_TAGS;
     }
 
     @Override
@@ -2,10 +2,7 @@ package com.structurizr.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * A software system is the highest level of abstraction and describes something
@@ -18,9 +15,12 @@ import java.util.Set;
  */
 public class SoftwareSystem extends StaticStructureElement {
 
+    private static final Set<String> REQUIRED_TAGS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.SOFTWARE_SYSTEM)));
+
     private Location location = Location.Unspecified;
 
     private Set<Container> containers = new LinkedHashSet<>();
+    private final Map<String, Container> containersByName = new HashMap<>();
 
     @Override
     @JsonIgnore
@@ -50,6 +50,11 @@ public class SoftwareSystem extends StaticStructureElement {
 
     void add(Container container) {
         containers.add(container);
+        containersByName.putIfAbsent(container.getName(), container);
+    }
+
+    void containerRenamed(Container container, String oldName) {
+        Model.reindex(containersByName, containers, container, oldName);
     }
 
     /**
@@ -61,6 +66,16 @@ public class SoftwareSystem extends StaticStructureElement {
         return new HashSet<>(containers);
     }
 
+    /**
+     * Gets the containers within this software system, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Set
+     */
+    @JsonIgnore
+    public Set<Container> getUnmodifiableContainers() {
+        return Collections.unmodifiableSet(containers);
+    }
+
     /**
      * Adds a container with the specified name, description and technology
      * (unless one exists with the same name already).
@@ -79,13 +94,7 @@ public class SoftwareSystem extends StaticStructureElement {
      * @return the container with the specified name (or null if it doesn't exist).
      */
     public Container getContainerWithName(String name) {
-        for (Container container : getContainers()) {
-            if (container.getName().equals(name)) {
-                return container;
-            }
-        }
-
-        return null;
+        return containersByName.get(name);
     }
 
     /**
@@ -93,23 +102,22 @@ public class SoftwareSystem extends StaticStructureElement {
      * @return Gets the container with the specified ID (or null if it doesn't exist).
      */
     public Container getContainerWithId(String id) {
-        for (Container container : getContainers()) {
-            if (container.getId().equals(id)) {
-                return container;
-            }
+        Element element = getModel().getElement(id);
+        if (element instanceof Container && element.getParent() == this) {
+            return (Container)element;
+        } else {
+            return null;
         }
-
-        return null;
     }
 
     @Override
-    public String getCanonicalName() {
+    protected String calculateCanonicalName() {
         return CANONICAL_NAME_SEPARATOR + formatForCanonicalName(getName());
     }
 
     @Override
     protected Set<String> getRequiredTags() {
-        return new LinkedHashSet<>(Arrays.asList(Tags.ELEMENT, Tags.SOFTWARE_SYSTEM));
+        return REQUIRED_TAGS;
     }
 
 }
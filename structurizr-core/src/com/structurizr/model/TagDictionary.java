@@ -0,0 +1,56 @@
+package com.structurizr.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary of the tags used in a model, which allows elements and relationships to store their
+ * tags as small integer ordinals rather than as strings. Each model has its own dictionary, so the
+ * first 64 distinct tags used in a model (which can be tested with a bitmask) are that model's own.
+ * Elements and relationships that aren't yet part of a model have a dictionary of their own,
+ * and their ordinals are remapped when they're added to one (see {@link Taggable#useTagDictionary(TagDictionary)}).
+ */
+final class TagDictionary {
+
+    private final Map<String, Integer> ordinalsByTag = new HashMap<>();
+    private final List<String> tagsByOrdinal = new ArrayList<>();
+
+    /**
+     * Gets the ordinal for the given tag, adding the tag to the dictionary if it's not been seen before.
+     *
+     * @param tag   a tag
+     * @return  the ordinal, zero or greater
+     */
+    int ordinalOf(String tag) {
+        Integer ordinal = ordinalsByTag.get(tag);
+        if (ordinal == null) {
+            ordinal = tagsByOrdinal.size();
+            tagsByOrdinal.add(tag);
+            ordinalsByTag.put(tag, ordinal);
+        }
+
+        return ordinal;
+    }
+
+    /**
+     * Gets the ordinal for the given tag, without adding it to the dictionary.
+     *
+     * @param tag   a tag
+     * @return  the ordinal, or -1 if the tag has never been used
+     */
+    int findOrdinalOf(String tag) {
+        if (tag == null) {
+            return -1;
+        }
+
+        Integer ordinal = ordinalsByTag.get(tag);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    String tagOf(int ordinal) {
+        return tagsByOrdinal.get(ordinal);
+    }
+
+}
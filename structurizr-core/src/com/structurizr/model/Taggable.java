@@ -1,13 +1,27 @@
 package com.structurizr.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 abstract class Taggable {
 
-    private Set<String> tags = new LinkedHashSet<>();
+    private static final int[] NO_TAGS = new int[0];
+
+    // the tags, as ordinals from the tag dictionary in the order they were added, plus a bitmask of the
+    // ordinals below 64 so that most calls to hasTag() are a single bit test (tags with higher ordinals,
+    // i.e. beyond the first 64 distinct tags in the model, are found by scanning the ordinals instead)
+    private int[] tags = NO_TAGS;
+    private long tagMask = 0;
+
+    // the model's dictionary, or one of our own (created when the first tag is added) until we're added to a model
+    private TagDictionary tagDictionary;
+
+    // the required tags plus the tags above, built on demand and discarded whenever the tags change
+    private Set<String> tagsAsSet;
 
     protected abstract Set<String> getRequiredTags();
 
@@ -18,21 +32,36 @@ abstract class Taggable {
      *          or an empty string if there are no tags
      */
     public String getTags() {
-        Set<String> setOfTags = new LinkedHashSet<>(getRequiredTags());
-        setOfTags.addAll(tags);
+        return String.join(",", cachedTagsAsSet());
+    }
 
-        if (setOfTags.isEmpty()) {
-            return "";
-        }
+    /**
+     * Gets the tags (including the required tags) as a read-only set, in the same order as {@link #getTags()}.
+     * The same set is returned until the tags are next changed, so callers can compare sets by identity
+     * to find out whether the tags have changed since they last looked.
+     *
+     * @return  an unmodifiable Set of tags
+     */
+    @JsonIgnore
+    public Set<String> getTagsAsSet() {
+        return cachedTagsAsSet();
+    }
 
-        StringBuilder buf = new StringBuilder();
-        for (String tag : setOfTags) {
-            buf.append(tag);
-            buf.append(",");
+    private Set<String> cachedTagsAsSet() {
+        if (tagsAsSet == null) {
+            Set<String> setOfTags = new LinkedHashSet<>();
+            Set<String> requiredTags = getRequiredTags();
+            if (requiredTags != null) {
+                setOfTags.addAll(requiredTags);
+            }
+            for (int ordinal : tags) {
+                setOfTags.add(tagDictionary.tagOf(ordinal));
+            }
+
+            tagsAsSet = Collections.unmodifiableSet(setOfTags);
         }
 
-        String tagsAsString = buf.toString();
-        return tagsAsString.substring(0, tagsAsString.length()-1);
+        return tagsAsSet;
     }
 
     void setTags(String tags) {
@@ -40,8 +69,12 @@ abstract class Taggable {
             return;
         }
 
-        this.tags.clear();
-        Collections.addAll(this.tags, tags.split(","));
+        this.tags = NO_TAGS;
+        this.tagMask = 0;
+        for (String tag : tags.split(",")) {
+            addTag(tag);
+        }
+        tagsAsSet = null;
     }
 
     public void addTags(String... tags) {
@@ -50,19 +83,88 @@ abstract class Taggable {
         }
 
         for (String tag : tags) {
-            if (tag != null) {
-                this.tags.add(tag);
+            if (tag != null && addTag(tag)) {
+                tagsAsSet = null;
+            }
+        }
+    }
+
+    private boolean addTag(String tag) {
+        if (tagDictionary == null) {
+            tagDictionary = new TagDictionary();
+        }
+
+        int ordinal = tagDictionary.ordinalOf(tag);
+        if (contains(ordinal)) {
+            return false;
+        }
+
+        tags = Arrays.copyOf(tags, tags.length + 1);
+        tags[tags.length - 1] = ordinal;
+        if (ordinal < 64) {
+            tagMask |= 1L << ordinal;
+        }
+
+        return true;
+    }
+
+    /**
+     * Switches to the given tag dictionary (that of the model this has been added to),
+     * remapping the ordinals of the tags from the dictionary used previously.
+     */
+    void useTagDictionary(TagDictionary tagDictionary) {
+        if (this.tagDictionary == tagDictionary) {
+            return;
+        }
+
+        TagDictionary previousTagDictionary = this.tagDictionary;
+        this.tagDictionary = tagDictionary;
+
+        tagMask = 0;
+        for (int i = 0; i < tags.length; i++) {
+            int ordinal = tagDictionary.ordinalOf(previousTagDictionary.tagOf(tags[i]));
+            tags[i] = ordinal;
+            if (ordinal < 64) {
+                tagMask |= 1L << ordinal;
             }
         }
     }
 
     public void removeTag(String tag) {
-        if (tag != null) {
-            this.tags.remove(tag);
+        int ordinal = tagDictionary != null ? tagDictionary.findOrdinalOf(tag) : -1;
+        if (ordinal != -1 && contains(ordinal)) {
+            int[] remainingTags = new int[tags.length - 1];
+            int i = 0;
+            for (int t : tags) {
+                if (t != ordinal) {
+                    remainingTags[i++] = t;
+                }
+            }
+
+            tags = remainingTags.length > 0 ? remainingTags : NO_TAGS;
+            if (ordinal < 64) {
+                tagMask &= ~(1L << ordinal);
+            }
+            tagsAsSet = null;
         }
     }
 
     public boolean hasTag(String tag) {
-        return this.tags.contains(tag);
+        int ordinal = tagDictionary != null ? tagDictionary.findOrdinalOf(tag) : -1;
+        return ordinal != -1 && contains(ordinal);
+    }
+
+    private boolean contains(int ordinal) {
+        if (ordinal < 64) {
+            return (tagMask & (1L << ordinal)) != 0;
+        }
+
+        for (int t : tags) {
+            if (t == ordinal) {
+                return true;
+            }
+        }
+
+        return false;
     }
 }
@@ -8,7 +8,6 @@ import com.structurizr.io.json.JsonWriter;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
-import java.io.StringWriter;
 
 /**
  * Some utility methods related to workspaces.
@@ -46,18 +45,16 @@ public final class WorkspaceUtils {
             throw new IllegalArgumentException("The path to a JSON file must be specified.");
         }
 
-        FileWriter writer = new FileWriter(file);
-        new JsonWriter(true).write(workspace, writer);
-        writer.flush();
-        writer.close();
+        try (FileWriter writer = new FileWriter(file)) {
+            new JsonWriter(true).write(workspace, writer);
+        }
     }
 
     public static void printWorkspaceAsJson(Workspace workspace) {
         try {
             JsonWriter jsonWriter = new JsonWriter(true);
-            StringWriter stringWriter = new StringWriter();
-            jsonWriter.write(workspace, stringWriter);
-            System.out.println(stringWriter.toString());
+            jsonWriter.write(workspace, System.out);
+            System.out.println();
         } catch (WorkspaceWriterException e) {
             e.printStackTrace();
         }
@@ -5,15 +5,17 @@ import com.structurizr.model.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 public class ComponentView extends StaticView {
 
     private Container container;
     private String containerId;
 
+    private boolean addExternalDependenciesAutomatically = false;
+
     private static final Log LOG = LogFactory.getLog(ComponentView.class);
+    private static final List<Class<? extends Element>> NEAREST_NEIGHBOUR_TYPES = Arrays.asList(SoftwareSystem.class, Person.class, Container.class, Component.class);
 
     ComponentView() {
     }
@@ -61,8 +63,7 @@ public class ComponentView extends StaticView {
      * Adds all containers in the software system to this view.
      */
     public void addAllContainers() {
-        getSoftwareSystem().getContainers().stream()
-                .forEach(this::add);
+        batch(() -> getSoftwareSystem().getUnmodifiableContainers().forEach(this::add));
     }
 
     /**
@@ -84,7 +85,7 @@ public class ComponentView extends StaticView {
      * Adds all components in the container to this view.
      */
     public void addAllComponents() {
-        container.getComponents().forEach(this::add);
+        batch(() -> container.getComponents().forEach(this::add));
     }
 
     /**
@@ -127,18 +128,30 @@ public class ComponentView extends StaticView {
 
     @Override
     public void addAllElements() {
-        addAllSoftwareSystems();
-        addAllPeople();
-        addAllContainers();
-        addAllComponents();
+        batch(() -> {
+            addAllSoftwareSystems();
+            addAllPeople();
+            addAllContainers();
+            addAllComponents();
+        });
+    }
+
+    @Override
+    boolean canBeAdded(Element element) {
+        if (element instanceof SoftwareSystem) {
+            return !element.equals(getSoftwareSystem());
+        } else if (element instanceof Container) {
+            return element.getParent().equals(getSoftwareSystem()) && !element.equals(getContainer());
+        } else if (element instanceof Component) {
+            return element.getParent().equals(getContainer());
+        } else {
+            return element instanceof Person;
+        }
     }
 
     @Override
-    public void addNearestNeighbours(Element element) {
-        super.addNearestNeighbours(element, SoftwareSystem.class);
-        super.addNearestNeighbours(element, Person.class);
-        super.addNearestNeighbours(element, Container.class);
-        super.addNearestNeighbours(element, Component.class);
+    List<Class<? extends Element>> getNearestNeighbourTypes() {
+        return NEAREST_NEIGHBOUR_TYPES;
     }
 
     /**
@@ -153,34 +166,127 @@ public class ComponentView extends StaticView {
      * or be selectively choosing certain components.</p>
      */
     public void addExternalDependencies() {
-        final Set<Element> components = new HashSet<>();
-        getElements().stream()
+        final Set<Element> components = new LinkedHashSet<>();
+        getUnmodifiableElements().stream()
                 .map(ElementView::getElement)
                 .filter(e -> e instanceof Component)
                 .forEach(components::add);
 
-        // add relationships of all other elements to or from our inside components
-        for (Relationship relationship : getContainer().getModel().getRelationships()) {
-            if (components.contains(relationship.getSource())) {
-                addExternalDependency(relationship.getDestination(), components);
+        // project the other end of each relationship to or from our inside components onto the element
+        // that represents it in this view (many components will share the same container or software system)
+        Model model = getModel();
+        Map<Element, Element> externalDependenciesByElement = new HashMap<>();
+        Set<Element> externalDependencies = new LinkedHashSet<>();
+        for (Element component : components) {
+            for (Relationship relationship : model.getEfferentRelationships(component)) {
+                addExternalDependency(relationship.getDestination(), externalDependenciesByElement, externalDependencies);
             }
-            if (components.contains(relationship.getDestination())) {
-                addExternalDependency(relationship.getSource(), components);
+            for (Relationship relationship : model.getAfferentRelationships(component)) {
+                addExternalDependency(relationship.getSource(), externalDependenciesByElement, externalDependencies);
             }
         }
 
+        batch(() -> externalDependencies.forEach(e -> addElement(e, true)));
+
         // remove all relationships between elements outside of this container
-        getRelationships().stream()
-                .map(RelationshipView::getRelationship)
-                .filter(r -> !components.contains(r.getSource()) && !components.contains(r.getDestination()))
-                .forEach(this::remove);
+        removeRelationships(r -> !components.contains(r.getSource()) && !components.contains(r.getDestination()));
+    }
+
+    private void addExternalDependency(Element element, Map<Element, Element> externalDependenciesByElement, Set<Element> externalDependencies) {
+        Element externalDependency;
+        if (externalDependenciesByElement.containsKey(element)) {
+            externalDependency = externalDependenciesByElement.get(element);
+        } else {
+            externalDependency = findExternalDependency(element);
+            externalDependenciesByElement.put(element, externalDependency);
+        }
+
+        if (externalDependency != null) {
+            externalDependencies.add(externalDependency);
+        }
+    }
+
+    /**
+     * Adds the external dependencies of the components in this view (see {@link #addExternalDependencies()}),
+     * and keeps adding them as relationships to or from those components are added to the model.
+     */
+    public void addExternalDependenciesAutomatically() {
+        addExternalDependencies();
+        addExternalDependenciesAutomatically = true;
+        listenToModel();
+    }
+
+    @Override
+    public void removeAutomaticRules() {
+        super.removeAutomaticRules();
+        addExternalDependenciesAutomatically = false;
+    }
+
+    @Override
+    void relationshipAddedToModel(Relationship relationship) {
+        if (!addExternalDependenciesAutomatically) {
+            super.relationshipAddedToModel(relationship);
+            return;
+        }
+
+        Element source = relationship.getSource();
+        Element destination = relationship.getDestination();
+        boolean fromComponentInView = source instanceof Component && getElementView(source) != null;
+        boolean toComponentInView = destination instanceof Component && getElementView(destination) != null;
+
+        Set<Element> elementsAdded = new HashSet<>();
+        if (fromComponentInView) {
+            elementsAdded.add(addExternalDependency(destination));
+        }
+        if (toComponentInView) {
+            elementsAdded.add(addExternalDependency(source));
+        }
+
+        super.relationshipAddedToModel(relationship);
+
+        // as with addExternalDependencies(), relationships between elements outside of this container aren't shown
+        if (isExternal(source) && isExternal(destination)) {
+            remove(relationship);
+        }
+        Model model = getModel();
+        for (Element element : elementsAdded) {
+            if (element != null) {
+                model.getEfferentRelationships(element).stream()
+                        .filter(r -> isExternal(r.getDestination()))
+                        .forEach(this::remove);
+                model.getAfferentRelationships(element).stream()
+                        .filter(r -> isExternal(r.getSource()))
+                        .forEach(this::remove);
+            }
+        }
     }
 
-    private void addExternalDependency(Element element, Set<Element> components) {
+    private boolean isExternal(Element element) {
+        return !(element instanceof Component && element.getParent().equals(getContainer()));
+    }
+
+    /**
+     * @return  the element that was added to the view (which may be the parent of the given element), or null
+     */
+    private Element addExternalDependency(Element element) {
+        Element externalDependency = findExternalDependency(element);
+        if (externalDependency != null) {
+            addElement(externalDependency, true);
+        }
+
+        return externalDependency;
+    }
+
+    /**
+     * Finds the element that represents the given element as an external dependency in this view.
+     *
+     * @return  the element itself, its container or software system, or null if it isn't an external dependency
+     */
+    private Element findExternalDependency(Element element) {
         if (element instanceof Component) {
             if (element.getParent().equals(getContainer())) {
                 // the component is in the same container, so we'll ignore it since we're only interested in external dependencies
-                return;
+                return null;
             } else {
                 // the component is in a different container, so let's try to add that instead
                 element = element.getParent();
@@ -190,8 +296,7 @@ public class ComponentView extends StaticView {
         if (element instanceof Container) {
             if (element.getParent().equals(this.getContainer().getParent())) {
                 // the container is in the same software system
-                addElement(element, true);
-                return;
+                return element;
             } else {
                 // the container is in a different software system, so add that instead
                 element = element.getParent();
@@ -199,8 +304,10 @@ public class ComponentView extends StaticView {
         }
 
         if (element instanceof SoftwareSystem || element instanceof Person) {
-            addElement(element, true);
+            return element;
         }
+
+        return null;
     }
 
     private boolean hasAnyRelationship(Container container, Set<Element> components) {
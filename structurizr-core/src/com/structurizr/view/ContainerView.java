@@ -5,8 +5,13 @@ import com.structurizr.model.Element;
 import com.structurizr.model.Person;
 import com.structurizr.model.SoftwareSystem;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class ContainerView extends StaticView {
 
+    private static final List<Class<? extends Element>> NEAREST_NEIGHBOUR_TYPES = Arrays.asList(SoftwareSystem.class, Person.class, Container.class);
+
     ContainerView() {
     }
 
@@ -25,7 +30,7 @@ public class ContainerView extends StaticView {
      * Adds all containers in the software system to this view.
      */
     public void addAllContainers() {
-        getSoftwareSystem().getContainers().forEach(this::add);
+        batch(() -> getSoftwareSystem().getUnmodifiableContainers().forEach(this::add));
     }
 
     /**
@@ -57,18 +62,29 @@ public class ContainerView extends StaticView {
         return getSoftwareSystem().getName() + " - Containers";
     }
 
+    @Override
+    boolean canBeAdded(Element element) {
+        if (element instanceof SoftwareSystem) {
+            return !element.equals(getSoftwareSystem());
+        } else if (element instanceof Container) {
+            return element.getParent().equals(getSoftwareSystem());
+        } else {
+            return element instanceof Person;
+        }
+    }
+
     @Override
     public void addAllElements() {
-        addAllSoftwareSystems();
-        addAllPeople();
-        addAllContainers();
+        batch(() -> {
+            addAllSoftwareSystems();
+            addAllPeople();
+            addAllContainers();
+        });
     }
 
     @Override
-    public void addNearestNeighbours(Element element) {
-        super.addNearestNeighbours(element, SoftwareSystem.class);
-        super.addNearestNeighbours(element, Person.class);
-        super.addNearestNeighbours(element, Container.class);
+    List<Class<? extends Element>> getNearestNeighbourTypes() {
+        return NEAREST_NEIGHBOUR_TYPES;
     }
 
 }
\ No newline at end of file
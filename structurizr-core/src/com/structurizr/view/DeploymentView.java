@@ -39,7 +39,12 @@ public class DeploymentView extends View {
      * Adds all of the top-level deployment nodes to this view.
      */
     public void addAllDeploymentNodes() {
-        getModel().getDeploymentNodes().forEach(this::add);
+        beginBatch();
+        try {
+            getModel().getUnmodifiableDeploymentNodes().forEach(this::add);
+        } finally {
+            endBatch();
+        }
     }
 
     /**
@@ -61,7 +66,7 @@ public class DeploymentView extends View {
 
     private boolean addContainerInstancesAndDeploymentNodes(DeploymentNode deploymentNode) {
         boolean hasContainers = false;
-        for (ContainerInstance containerInstance : deploymentNode.getContainerInstances()) {
+        for (ContainerInstance containerInstance : deploymentNode.getUnmodifiableContainerInstances()) {
             Container container = containerInstance.getContainer();
             if (getSoftwareSystem() == null || container.getParent().equals(getSoftwareSystem())) {
                 addElement(containerInstance, true);
@@ -69,7 +74,7 @@ public class DeploymentView extends View {
             }
         }
 
-        for (DeploymentNode child : deploymentNode.getChildren()) {
+        for (DeploymentNode child : deploymentNode.getUnmodifiableChildren()) {
             hasContainers = hasContainers | addContainerInstancesAndDeploymentNodes(child);
         }
 
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.structurizr.model.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -158,17 +159,14 @@ public class DynamicView extends View {
     }
 
     @Override
-    protected RelationshipView findRelationshipView(RelationshipView sourceRelationshipView) {
-        for (RelationshipView relationshipView : getRelationships()) {
-            if (relationshipView.getRelationship().equals(sourceRelationshipView.getRelationship())) {
-                if ((relationshipView.getDescription() != null && relationshipView.getDescription().equals(sourceRelationshipView.getDescription())) &&
-                        relationshipView.getOrder().equals(sourceRelationshipView.getOrder())) {
-                    return relationshipView;
-                }
-            }
+    List<Object> getLayoutKey(RelationshipView relationshipView) {
+        // the same relationship can appear more than once in a dynamic view, so the description and order are part of the key
+        List<Object> layoutKey = super.getLayoutKey(relationshipView);
+        if (layoutKey == null || relationshipView.getDescription() == null || relationshipView.getOrder() == null) {
+            return null;
         }
 
-        return null;
+        return Arrays.asList(layoutKey.get(0), layoutKey.get(1), layoutKey.get(2), relationshipView.getDescription(), relationshipView.getOrder());
     }
 
     @Override
@@ -3,6 +3,9 @@ package com.structurizr.view;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.structurizr.model.*;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Represents an Enterprise Context view that sits above the C4 model. This is the "big picture" view,
  * showing the software systems and people in an given environment.
@@ -10,6 +13,8 @@ import com.structurizr.model.*;
  */
 public class EnterpriseContextView extends StaticView {
 
+    private static final List<Class<? extends Element>> NEAREST_NEIGHBOUR_TYPES = Arrays.asList(SoftwareSystem.class, Person.class);
+
     private Model model;
 
     EnterpriseContextView() {
@@ -48,14 +53,15 @@ public class EnterpriseContextView extends StaticView {
      */
     @Override
     public void addAllElements() {
-        addAllSoftwareSystems();
-        addAllPeople();
+        batch(() -> {
+            addAllSoftwareSystems();
+            addAllPeople();
+        });
     }
 
     @Override
-    public void addNearestNeighbours(Element element) {
-        super.addNearestNeighbours(element, SoftwareSystem.class);
-        super.addNearestNeighbours(element, Person.class);
+    List<Class<? extends Element>> getNearestNeighbourTypes() {
+        return NEAREST_NEIGHBOUR_TYPES;
     }
 
 }
\ No newline at end of file
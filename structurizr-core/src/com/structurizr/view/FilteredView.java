@@ -1,10 +1,10 @@
 package com.structurizr.view;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.structurizr.model.Element;
+import com.structurizr.model.Relationship;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Represents a view on top of a view, which can be used to include or exclude specific elements.
@@ -22,6 +22,14 @@ public class FilteredView {
     private FilterMode mode = FilterMode.Exclude;
     private Set<String> tags = new HashSet<>();
 
+    // the result of applying the filter to each element/relationship in the base view (keyed on ID),
+    // and the elements/relationships that pass the filter, in the same order as the base view
+    private int baseViewModificationCount;
+    private Map<String, Evaluation> elementEvaluations = new HashMap<>();
+    private Map<String, Evaluation> relationshipEvaluations = new HashMap<>();
+    private Set<ElementView> elements;
+    private Set<RelationshipView> relationships;
+
     FilteredView() {
     }
 
@@ -40,6 +48,7 @@ public class FilteredView {
 
     void setView(View view) {
         this.view = view;
+        invalidate();
     }
 
     public String getBaseViewKey() {
@@ -76,10 +85,153 @@ public class FilteredView {
 
     void setMode(FilterMode mode) {
         this.mode = mode;
+        invalidate();
     }
 
     public Set<String> getTags() {
         return new HashSet<>(tags);
     }
 
+    /**
+     * Gets the elements in the base view that pass the filter (i.e. that have one of the tags when the
+     * mode is Include, or none of the tags when the mode is Exclude).
+     *
+     * @return  an unmodifiable Set of ElementView objects, in the same order as the base view
+     */
+    @JsonIgnore
+    public Set<ElementView> getElements() {
+        refresh();
+        return elements;
+    }
+
+    /**
+     * Gets the relationships in the base view that pass the filter, and whose source and
+     * destination elements both pass the filter.
+     *
+     * @return  an unmodifiable Set of RelationshipView objects, in the same order as the base view
+     */
+    @JsonIgnore
+    public Set<RelationshipView> getRelationships() {
+        refresh();
+        return relationships;
+    }
+
+    private void invalidate() {
+        elementEvaluations = new HashMap<>();
+        relationshipEvaluations = new HashMap<>();
+        elements = null;
+        relationships = null;
+    }
+
+    /**
+     * Brings the filtered elements and relationships up to date with the base view. Only those
+     * elements/relationships that are new to the base view, or whose tags have changed since they
+     * were last evaluated, are evaluated against the filter again.
+     */
+    private void refresh() {
+        if (view == null) {
+            elements = Collections.emptySet();
+            relationships = Collections.emptySet();
+            return;
+        }
+
+        boolean baseViewChanged = elements == null || view.getModificationCount() != baseViewModificationCount;
+        boolean changed = baseViewChanged;
+
+        Map<String, Evaluation> previousElementEvaluations = elementEvaluations;
+        if (baseViewChanged) {
+            // start again, so that elements removed from the base view are forgotten
+            elementEvaluations = new HashMap<>();
+        }
+        for (ElementView elementView : view.getUnmodifiableElements()) {
+            Element element = elementView.getElement();
+            if (element != null) {
+                changed |= evaluate(element.getId(), element.getTagsAsSet(), previousElementEvaluations, elementEvaluations);
+            }
+        }
+
+        Map<String, Evaluation> previousRelationshipEvaluations = relationshipEvaluations;
+        if (baseViewChanged) {
+            relationshipEvaluations = new HashMap<>();
+        }
+        for (RelationshipView relationshipView : view.getUnmodifiableRelationships()) {
+            Relationship relationship = relationshipView.getRelationship();
+            if (relationship != null) {
+                changed |= evaluate(relationship.getId(), relationship.getTagsAsSet(), previousRelationshipEvaluations, relationshipEvaluations);
+            }
+        }
+
+        if (changed) {
+            Set<ElementView> elements = new LinkedHashSet<>();
+            for (ElementView elementView : view.getUnmodifiableElements()) {
+                if (isIncluded(elementEvaluations, elementView.getId())) {
+                    elements.add(elementView);
+                }
+            }
+
+            Set<RelationshipView> relationships = new LinkedHashSet<>();
+            for (RelationshipView relationshipView : view.getUnmodifiableRelationships()) {
+                Relationship relationship = relationshipView.getRelationship();
+                if (relationship != null &&
+                        isIncluded(relationshipEvaluations, relationship.getId()) &&
+                        isIncluded(elementEvaluations, relationship.getSourceId()) &&
+                        isIncluded(elementEvaluations, relationship.getDestinationId())) {
+                    relationships.add(relationshipView);
+                }
+            }
+
+            this.elements = Collections.unmodifiableSet(elements);
+            this.relationships = Collections.unmodifiableSet(relationships);
+            this.baseViewModificationCount = view.getModificationCount();
+        }
+    }
+
+    /**
+     * Evaluates the filter against the given tags, unless they were evaluated last time around.
+     *
+     * @return  true if the element/relationship has moved into or out of the filtered view, false otherwise
+     */
+    private boolean evaluate(String id, Set<String> tags, Map<String, Evaluation> previousEvaluations, Map<String, Evaluation> evaluations) {
+        Evaluation previousEvaluation = previousEvaluations.get(id);
+        if (previousEvaluation != null && previousEvaluation.tags == tags) {
+            // the tags haven't changed, so neither has the result
+            evaluations.put(id, previousEvaluation);
+            return false;
+        }
+
+        Evaluation evaluation = new Evaluation(tags, accepts(tags));
+        evaluations.put(id, evaluation);
+
+        return previousEvaluation == null || previousEvaluation.included != evaluation.included;
+    }
+
+    private boolean accepts(Set<String> tagsToTest) {
+        boolean hasTag = false;
+        for (String tag : tagsToTest) {
+            if (tags.contains(tag)) {
+                hasTag = true;
+                break;
+            }
+        }
+
+        return mode == FilterMode.Include ? hasTag : !hasTag;
+    }
+
+    private static boolean isIncluded(Map<String, Evaluation> evaluations, String id) {
+        Evaluation evaluation = evaluations.get(id);
+        return evaluation != null && evaluation.included;
+    }
+
+    private static final class Evaluation {
+
+        private final Set<String> tags;
+        private final boolean included;
+
+        private Evaluation(Set<String> tags, boolean included) {
+            this.tags = tags;
+            this.included = included;
+        }
+
+    }
+
 }
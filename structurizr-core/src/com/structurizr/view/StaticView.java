@@ -1,15 +1,17 @@
 package com.structurizr.view;
 
-import com.structurizr.model.Element;
-import com.structurizr.model.Person;
-import com.structurizr.model.Relationship;
-import com.structurizr.model.SoftwareSystem;
+import com.structurizr.model.*;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Predicate;
 
 public abstract class StaticView extends View {
 
+    // rules that keep this view up to date as the model changes (these aren't serialized)
+    private final List<Predicate<Element>> elementRules = new ArrayList<>();
+    private final Set<Element> nearestNeighbourRules = new LinkedHashSet<>();
+    private ModelListener modelListener;
+
     StaticView() {
     }
 
@@ -21,7 +23,7 @@ public abstract class StaticView extends View {
      * Adds all software systems in the model to this view.
      */
     public void addAllSoftwareSystems() {
-        getModel().getSoftwareSystems().forEach(this::add);
+        batch(() -> getModel().getUnmodifiableSoftwareSystems().forEach(this::add));
     }
 
     /**
@@ -46,7 +48,7 @@ public abstract class StaticView extends View {
      * Adds all people in the model to this view.
      */
     public void addAllPeople() {
-        getModel().getPeople().forEach(this::add);
+        batch(() -> getModel().getUnmodifiablePeople().forEach(this::add));
     }
 
     /**
@@ -67,9 +69,155 @@ public abstract class StaticView extends View {
         removeElement(person);
     }
 
+    /**
+     * Runs the given additions (e.g. calls to the add methods) as a batch. Rather than working out
+     * the relationships each time an element is added, the relationships between all of the
+     * added elements and the rest of the view are added in one go at the end of the batch.
+     *
+     * @param additions     the additions to make
+     */
+    public void batch(Runnable additions) {
+        beginBatch();
+        try {
+            additions.run();
+        } finally {
+            endBatch();
+        }
+    }
+
     public abstract void addAllElements();
 
-    public abstract void addNearestNeighbours(Element element);
+    /**
+     * Adds all elements in the model that match the given rule to this view, and registers the rule
+     * so that elements subsequently added to the model are also added to this view when they match.
+     * Only those types of element that can be added to this view are considered
+     * (e.g. people and software systems on a system context view).
+     *
+     * @param rule  a predicate that the elements to add must match
+     */
+    public void addElementsAutomatically(Predicate<Element> rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("A rule must be specified.");
+        }
+
+        elementRules.add(rule);
+        batch(() -> getModel().getUnmodifiableElements().stream()
+                .filter(e -> canBeAdded(e) && rule.test(e))
+                .forEach(e -> addElement(e, true)));
+        listenToModel();
+    }
+
+    /**
+     * Adds the nearest neighbours of the given element to this view (see {@link #addNearestNeighbours(Element)}),
+     * and keeps adding them as relationships to or from that element are added to the model.
+     *
+     * @param element   the element
+     */
+    public void addNearestNeighboursAutomatically(Element element) {
+        if (element == null) {
+            throw new IllegalArgumentException("An element must be specified.");
+        }
+
+        nearestNeighbourRules.add(element);
+        addNearestNeighbours(element);
+        listenToModel();
+    }
+
+    /**
+     * Stops this view from being updated as the model changes. The elements and relationships
+     * already in the view are left as they are.
+     */
+    public void removeAutomaticRules() {
+        elementRules.clear();
+        nearestNeighbourRules.clear();
+        if (modelListener != null) {
+            getModel().removeModelListener(modelListener);
+            modelListener = null;
+        }
+    }
+
+    final void listenToModel() {
+        if (modelListener == null) {
+            modelListener = new ModelListener() {
+                @Override
+                public void elementAdded(Element element) {
+                    elementAddedToModel(element);
+                }
+
+                @Override
+                public void relationshipAdded(Relationship relationship) {
+                    relationshipAddedToModel(relationship);
+                }
+            };
+            getModel().addModelListener(modelListener);
+        }
+    }
+
+    void elementAddedToModel(Element element) {
+        if (canBeAdded(element)) {
+            for (Predicate<Element> rule : elementRules) {
+                if (rule.test(element)) {
+                    addElement(element, true);
+                    return;
+                }
+            }
+        }
+    }
+
+    void relationshipAddedToModel(Relationship relationship) {
+        // the new relationship gives each end at most one new nearest neighbour (the other end),
+        // so there's no need to look at the rest of the element's neighbourhood again; the other end
+        // is added by the same rule as addNearestNeighbours(Element), so the result is the same
+        Element source = relationship.getSource();
+        Element destination = relationship.getDestination();
+        if (nearestNeighbourRules.contains(source) && isNearestNeighbourType(destination)) {
+            addElement(destination, true);
+        }
+        if (nearestNeighbourRules.contains(destination) && isNearestNeighbourType(source)) {
+            addElement(source, true);
+        }
+
+        // the relationship might be between elements that are in the view already
+        add(relationship);
+    }
+
+    /**
+     * Determines whether the given element is of a type that can be added to this view.
+     *
+     * @param element   an Element
+     * @return  true if the element can be added, false otherwise
+     */
+    boolean canBeAdded(Element element) {
+        return element instanceof Person || element instanceof SoftwareSystem;
+    }
+
+    /**
+     * Gets the types of element that are added to this view as nearest neighbours.
+     *
+     * @return  a List of element types, in the order that they're added
+     */
+    abstract List<Class<? extends Element>> getNearestNeighbourTypes();
+
+    /**
+     * Adds the given element, and its nearest neighbours of the types that this view shows, to this view.
+     *
+     * @param element   the element
+     */
+    public void addNearestNeighbours(Element element) {
+        for (Class<? extends Element> typeOfElement : getNearestNeighbourTypes()) {
+            addNearestNeighbours(element, typeOfElement);
+        }
+    }
+
+    private boolean isNearestNeighbourType(Element element) {
+        for (Class<? extends Element> typeOfElement : getNearestNeighbourTypes()) {
+            if (typeOfElement.isInstance(element)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 
     protected <T extends Element> void addNearestNeighbours(Element element, Class<T> typeOfElement) {
         if (element == null) {
@@ -78,13 +226,14 @@ public abstract class StaticView extends View {
 
         addElement(element, true);
 
-        Set<Relationship> relationships = getModel().getRelationships();
-        relationships.stream().filter(r -> r.getSource().equals(element) && typeOfElement.isInstance(r.getDestination()))
+        getModel().getEfferentRelationships(element).stream()
                 .map(Relationship::getDestination)
+                .filter(typeOfElement::isInstance)
                 .forEach(d -> addElement(d, true));
 
-        relationships.stream().filter(r -> r.getDestination().equals(element) && typeOfElement.isInstance(r.getSource()))
+        getModel().getAfferentRelationships(element).stream()
                 .map(Relationship::getSource)
+                .filter(typeOfElement::isInstance)
                 .forEach(s -> addElement(s, true));
     }
 
@@ -96,28 +245,84 @@ public abstract class StaticView extends View {
      */
     public void removeElementsThatCantBeReachedFrom(Element element) {
         if (element != null) {
-            Set<Element> elementsToShow = new HashSet<>();
-            Set<Element> elementsVisited = new HashSet<>();
-            findElementsToShow(element, element, elementsToShow, elementsVisited);
+            Set<Element> elementsToRemove = new HashSet<>();
+            for (ElementView elementView : getUnmodifiableElements()) {
+                elementsToRemove.add(elementView.getElement());
+            }
+            elementsToRemove.removeAll(findElementsToShow(element));
+
+            removeElements(elementsToRemove);
+        }
+    }
+
+    /**
+     * Finds the elements in this view that can be reached from the starting element, with a breadth-first
+     * traversal of the relationships between elements in this view. Elements with a relationship back to the
+     * starting element are shown, but the traversal doesn't continue past them.
+     */
+    private Set<Element> findElementsToShow(Element startingElement) {
+        Set<Element> elementsToShow = new HashSet<>();
+        if (getElementView(startingElement) == null) {
+            return elementsToShow;
+        }
 
-            for (ElementView elementView : getElements()) {
-                if (!elementsToShow.contains(elementView.getElement())) {
-                    removeElement(elementView.getElement());
+        // number the elements in the view, and build the adjacency lists between them
+        Model model = getModel();
+        Element[] elements = new Element[getUnmodifiableElements().size()];
+        Map<Element, Integer> indexes = new HashMap<>();
+        int index = 0;
+        for (ElementView elementView : getUnmodifiableElements()) {
+            elements[index] = elementView.getElement();
+            indexes.put(elements[index], index);
+            index++;
+        }
+
+        int[][] adjacency = new int[elements.length][];
+        for (int i = 0; i < elements.length; i++) {
+            Set<Relationship> relationships = model.getEfferentRelationships(elements[i]);
+            int[] destinations = new int[relationships.size()];
+            int numberOfDestinations = 0;
+            for (Relationship relationship : relationships) {
+                Integer destination = indexes.get(relationship.getDestination());
+                if (destination != null) {
+                    destinations[numberOfDestinations++] = destination;
                 }
             }
+            adjacency[i] = Arrays.copyOf(destinations, numberOfDestinations);
         }
-    }
 
-    private void findElementsToShow(Element startingElement, Element element, Set<Element> elementsToShow, Set<Element> elementsVisited) {
-        if (!elementsVisited.contains(element) && getElements().contains(new ElementView(element))) {
-            elementsVisited.add(element);
-            elementsToShow.add(element);
+        boolean[] leadsBackToStart = new boolean[elements.length];
+        for (Relationship relationship : model.getAfferentRelationships(startingElement)) {
+            Integer source = indexes.get(relationship.getSource());
+            if (source != null) {
+                leadsBackToStart[source] = true;
+            }
+        }
+
+        boolean[] visited = new boolean[elements.length];
+        int[] queue = new int[elements.length];
+        int head = 0;
+        int tail = 0;
+
+        int start = indexes.get(startingElement);
+        visited[start] = true;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            elementsToShow.add(elements[current]);
 
-            // check that we've not gone back to the starting point of the graph
-            if (!element.hasEfferentRelationshipWith(startingElement)) {
-                element.getRelationships().forEach(r -> findElementsToShow(startingElement, r.getDestination(), elementsToShow, elementsVisited));
+            if (!leadsBackToStart[current]) {
+                for (int destination : adjacency[current]) {
+                    if (!visited[destination]) {
+                        visited[destination] = true;
+                        queue[tail++] = destination;
+                    }
+                }
             }
         }
+
+        return elementsToShow;
     }
 
     /**
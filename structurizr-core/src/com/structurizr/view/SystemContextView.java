@@ -4,6 +4,9 @@ import com.structurizr.model.Element;
 import com.structurizr.model.Person;
 import com.structurizr.model.SoftwareSystem;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Represents the System Context view from the C4 model. This is the "big picture" view,
  * showing how a software system fits into its environment, in terms of key types of
@@ -12,6 +15,8 @@ import com.structurizr.model.SoftwareSystem;
  */
 public class SystemContextView extends StaticView {
 
+    private static final List<Class<? extends Element>> NEAREST_NEIGHBOUR_TYPES = Arrays.asList(SoftwareSystem.class, Person.class);
+
     SystemContextView() {
     }
 
@@ -37,14 +42,15 @@ public class SystemContextView extends StaticView {
      */
     @Override
     public void addAllElements() {
-        addAllSoftwareSystems();
-        addAllPeople();
+        batch(() -> {
+            addAllSoftwareSystems();
+            addAllPeople();
+        });
     }
 
     @Override
-    public void addNearestNeighbours(Element element) {
-        super.addNearestNeighbours(element, SoftwareSystem.class);
-        super.addNearestNeighbours(element, Person.class);
+    List<Class<? extends Element>> getNearestNeighbourTypes() {
+        return NEAREST_NEIGHBOUR_TYPES;
     }
 
 }
\ No newline at end of file
@@ -6,11 +6,8 @@ import com.structurizr.model.Model;
 import com.structurizr.model.Relationship;
 import com.structurizr.model.SoftwareSystem;
 
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * The superclass for all views.
@@ -27,6 +24,18 @@ public abstract class View {
 
     private Set<RelationshipView> relationshipViews = new LinkedHashSet<>();
 
+    // lookups for the above, keyed on element/relationship ID (a dynamic view can contain the same
+    // relationship more than once, in which case the first relationship view is indexed)
+    private Map<String, ElementView> elementViewsById = new HashMap<>();
+    private Map<String, RelationshipView> relationshipViewsById = new HashMap<>();
+
+    // while a batch is open, the relationships of added elements are deferred until the batch ends
+    private int batchDepth = 0;
+    private Set<Element> batch;
+
+    // incremented whenever an element or relationship view is added or removed
+    private int modificationCount = 0;
+
     View() {
     }
 
@@ -121,33 +130,78 @@ public abstract class View {
     protected final void addElement(Element element, boolean addRelationships) {
         if (element != null) {
             if (getModel().contains(element)) {
-                elementViews.add(new ElementView(element));
+                ElementView elementView = new ElementView(element);
+                if (elementViews.add(elementView)) {
+                    elementViewsById.put(elementView.getId(), elementView);
+                    modificationCount++;
+                }
 
                 if (addRelationships) {
-                    addRelationships(element);
+                    if (batch != null) {
+                        batch.add(element);
+                    } else {
+                        addRelationships(element);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a batch of additions; relationships for elements added with addElement(element, true)
+     * are deferred until the matching call to {@link #endBatch()}. Batches can be nested.
+     */
+    protected final void beginBatch() {
+        if (batchDepth++ == 0) {
+            batch = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * Ends a batch of additions, adding the relationships between the elements added during
+     * the batch, and between those elements and the elements that were already in the view.
+     */
+    protected final void endBatch() {
+        if (batchDepth > 0 && --batchDepth == 0) {
+            Set<Element> elements = batch;
+            batch = null;
+
+            Model model = getModel();
+            for (Element element : elements) {
+                if (!isElementInView(element)) {
+                    continue; // removed again during the batch
+                }
+
+                for (Relationship relationship : model.getEfferentRelationships(element)) {
+                    if (isElementInView(relationship.getDestination())) {
+                        addRelationshipView(new RelationshipView(relationship));
+                    }
+                }
+
+                // relationships from other elements in the batch have been added already, as their efferent relationships
+                for (Relationship relationship : model.getAfferentRelationships(element)) {
+                    if (!elements.contains(relationship.getSource()) && isElementInView(relationship.getSource())) {
+                        addRelationshipView(new RelationshipView(relationship));
+                    }
                 }
             }
         }
     }
 
     private void addRelationships(Element element) {
-        Set<Element> elements = getElements().stream()
-                .map(ElementView::getElement)
-                .collect(Collectors.toSet());
+        Model model = getModel();
 
         // add relationships where the destination exists in the view already
-        for (Relationship relationship : element.getRelationships()) {
-            if (elements.contains(relationship.getDestination())) {
-                this.relationshipViews.add(new RelationshipView(relationship));
+        for (Relationship relationship : model.getEfferentRelationships(element)) {
+            if (isElementInView(relationship.getDestination())) {
+                addRelationshipView(new RelationshipView(relationship));
             }
         }
 
         // add relationships where the source exists in the view already
-        for (Element e : elements) {
-            for (Relationship r : e.getRelationships()) {
-                if (r.getDestination().equals(element)) {
-                    this.relationshipViews.add(new RelationshipView(r));
-                }
+        for (Relationship relationship : model.getAfferentRelationships(element)) {
+            if (isElementInView(relationship.getSource())) {
+                addRelationshipView(new RelationshipView(relationship));
             }
         }
     }
@@ -155,22 +209,67 @@ public abstract class View {
     protected void removeElement(Element element) {
         if (element != null) {
             ElementView elementView = new ElementView(element);
-            elementViews.remove(elementView);
+            if (elementViews.remove(elementView)) {
+                elementViewsById.remove(elementView.getId());
+                modificationCount++;
+            }
 
-            for (RelationshipView relationshipView : getRelationships()) {
-                if (relationshipView.getRelationship().getSource().equals(element) ||
-                        relationshipView.getRelationship().getDestination().equals(element)) {
-                    remove(relationshipView.getRelationship());
-                }
+            Model model = getModel();
+            for (Relationship relationship : model.getEfferentRelationships(element)) {
+                remove(relationship);
+            }
+            for (Relationship relationship : model.getAfferentRelationships(element)) {
+                remove(relationship);
             }
         }
     }
 
+    /**
+     * Removes the given elements, and the relationships to or from them, in a single pass over this view.
+     *
+     * @param elements  the elements to remove
+     */
+    protected void removeElements(Set<Element> elements) {
+        if (elements == null || elements.isEmpty()) {
+            return;
+        }
+
+        if (elementViews.removeIf(ev -> elements.contains(ev.getElement()))) {
+            indexElementViews();
+        }
+
+        if (relationshipViews.removeIf(rv -> elements.contains(rv.getRelationship().getSource()) || elements.contains(rv.getRelationship().getDestination()))) {
+            indexRelationshipViews();
+        }
+    }
+
+    /**
+     * Removes the relationships that match the given filter, in a single pass over this view.
+     *
+     * @param filter    a predicate that the relationships to remove match
+     */
+    protected void removeRelationships(Predicate<Relationship> filter) {
+        if (relationshipViews.removeIf(rv -> filter.test(rv.getRelationship()))) {
+            indexRelationshipViews();
+        }
+    }
+
     public RelationshipView add(Relationship relationship) {
+        return addRelationship(relationship, null, null);
+    }
+
+    private boolean isElementInView(Element element) {
+        return getElementView(element) != null;
+    }
+
+    protected RelationshipView addRelationship(Relationship relationship, String description, String order) {
         if (relationship != null) {
             if (isElementInView(relationship.getSource()) && isElementInView(relationship.getDestination())) {
+                // description and order are part of the identity of a relationship view, so set them before it's added
                 RelationshipView relationshipView = new RelationshipView(relationship);
-                relationshipViews.add(relationshipView);
+                relationshipView.setDescription(description);
+                relationshipView.setOrder(order);
+                addRelationshipView(relationshipView);
 
                 return relationshipView;
             }
@@ -179,24 +278,32 @@ public abstract class View {
         return null;
     }
 
-    private boolean isElementInView(Element element) {
-        return this.elementViews.stream().filter(ev -> ev.getElement().equals(element)).count() > 0;
-    }
-
-    protected RelationshipView addRelationship(Relationship relationship, String description, String order) {
-        RelationshipView relationshipView = add(relationship);
-        if (relationshipView != null) {
-            relationshipView.setDescription(description);
-            relationshipView.setOrder(order);
+    private void addRelationshipView(RelationshipView relationshipView) {
+        if (relationshipViews.add(relationshipView)) {
+            relationshipViewsById.putIfAbsent(relationshipView.getId(), relationshipView);
+            modificationCount++;
         }
-
-        return relationshipView;
     }
 
     public void remove(Relationship relationship) {
         if (relationship != null) {
             RelationshipView relationshipView = new RelationshipView(relationship);
-            relationshipViews.remove(relationshipView);
+            if (relationshipViews.remove(relationshipView)) {
+                modificationCount++;
+
+                RelationshipView indexedRelationshipView = relationshipViewsById.get(relationshipView.getId());
+                if (relationshipView.equals(indexedRelationshipView)) {
+                    relationshipViewsById.remove(relationshipView.getId());
+
+                    // only look for another view of the same relationship if there are any
+                    if (relationshipViews.size() > relationshipViewsById.size()) {
+                        relationshipViews.stream()
+                                .filter(rv -> rv.getId().equals(relationshipView.getId()))
+                                .findFirst()
+                                .ifPresent(rv -> relationshipViewsById.put(rv.getId(), rv));
+                    }
+                }
+            }
         }
     }
 
@@ -214,6 +321,47 @@ public abstract class View {
         }
     }
 
+    /**
+     * Resolves the element and relationship references of this view against the given model
+     * (e.g. when a workspace is deserialized).
+     */
+    void hydrate(Model model) {
+        for (ElementView elementView : elementViews) {
+            elementView.setElement(model.getElement(elementView.getId()));
+        }
+        for (RelationshipView relationshipView : relationshipViews) {
+            relationshipView.setRelationship(model.getRelationship(relationshipView.getId()));
+        }
+
+        indexElementViews();
+        indexRelationshipViews();
+    }
+
+    private void indexElementViews() {
+        modificationCount++;
+        elementViewsById = new HashMap<>();
+        for (ElementView elementView : elementViews) {
+            elementViewsById.put(elementView.getId(), elementView);
+        }
+    }
+
+    private void indexRelationshipViews() {
+        modificationCount++;
+        relationshipViewsById = new HashMap<>();
+        for (RelationshipView relationshipView : relationshipViews) {
+            relationshipViewsById.putIfAbsent(relationshipView.getId(), relationshipView);
+        }
+    }
+
+    /**
+     * Gets a count that changes whenever elements or relationships are added to or removed from this view.
+     *
+     * @return  the modification count
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+
     /**
      * Gets the set of elements in this view.
      *
@@ -223,8 +371,19 @@ public abstract class View {
         return new HashSet<>(elementViews);
     }
 
+    /**
+     * Gets the elements in this view, as a read-only view of the underlying set rather than a copy.
+     *
+     * @return an unmodifiable Set of ElementView objects
+     */
+    @JsonIgnore
+    public Set<ElementView> getUnmodifiableElements() {
+        return Collections.unmodifiableSet(elementViews);
+    }
+
     void setElements(Set<ElementView> elementViews) {
         this.elementViews = elementViews;
+        indexElementViews();
     }
 
     /**
@@ -236,8 +395,19 @@ public abstract class View {
         return new HashSet<>(this.relationshipViews);
     }
 
+    /**
+     * Gets the relationships in this view, as a read-only view of the underlying set rather than a copy.
+     *
+     * @return an unmodifiable Set of RelationshipView objects
+     */
+    @JsonIgnore
+    public Set<RelationshipView> getUnmodifiableRelationships() {
+        return Collections.unmodifiableSet(this.relationshipViews);
+    }
+
     public void setRelationships(Set<RelationshipView> relationships) {
         this.relationshipViews = relationships;
+        indexRelationshipViews();
     }
 
     /**
@@ -245,7 +415,7 @@ public abstract class View {
      * to other elements in this view.
      */
     public void removeElementsWithNoRelationships() {
-        Set<RelationshipView> relationships = getRelationships();
+        Set<RelationshipView> relationships = getUnmodifiableRelationships();
 
         Set<String> elementIds = new HashSet<>();
         relationships.forEach(rv -> elementIds.add(rv.getRelationship().getSourceId()));
@@ -261,49 +431,88 @@ public abstract class View {
     public void copyLayoutInformationFrom(View source) {
         this.setPaperSize(source.getPaperSize());
 
-        for (ElementView sourceElementView : source.getElements()) {
-            ElementView destinationElementView = findElementView(sourceElementView);
+        // the source view is typically from another copy of the workspace, where the IDs may differ,
+        // so element views are matched by type and canonical name, and relationship views by layout key
+        Map<List<Object>, ElementView> elementViewsByLayoutKey = new HashMap<>();
+        for (ElementView elementView : elementViews) {
+            if (elementView.getElement() != null) {
+                elementViewsByLayoutKey.putIfAbsent(getLayoutKey(elementView.getElement()), elementView);
+            }
+        }
+
+        for (ElementView sourceElementView : source.getUnmodifiableElements()) {
+            Element sourceElement = sourceElementView.getElement();
+            ElementView destinationElementView = sourceElement != null ? elementViewsByLayoutKey.get(getLayoutKey(sourceElement)) : null;
             if (destinationElementView != null) {
                 destinationElementView.copyLayoutInformationFrom(sourceElementView);
             }
         }
 
-        for (RelationshipView sourceRelationshipView : source.getRelationships()) {
-            RelationshipView destinationRelationshipView = findRelationshipView(sourceRelationshipView);
+        Map<List<Object>, RelationshipView> relationshipViewsByLayoutKey = new HashMap<>();
+        for (RelationshipView relationshipView : relationshipViews) {
+            List<Object> layoutKey = getLayoutKey(relationshipView);
+            if (layoutKey != null) {
+                relationshipViewsByLayoutKey.putIfAbsent(layoutKey, relationshipView);
+            }
+        }
+
+        for (RelationshipView sourceRelationshipView : source.getUnmodifiableRelationships()) {
+            List<Object> layoutKey = getLayoutKey(sourceRelationshipView);
+            RelationshipView destinationRelationshipView = layoutKey != null ? relationshipViewsByLayoutKey.get(layoutKey) : null;
             if (destinationRelationshipView != null) {
                 destinationRelationshipView.copyLayoutInformationFrom(sourceRelationshipView);
             }
         }
     }
 
-    private ElementView findElementView(ElementView sourceElementView) {
-        for (ElementView elementView : getElements()) {
-            if (elementView.getElement().equals(sourceElementView.getElement())) {
-                return elementView;
-            }
+    /**
+     * Gets the key used to match elements when copying layout information between views. This is consistent
+     * with {@link Element#equals(Object)}, which compares the type and canonical name rather than the ID.
+     *
+     * @param element   an Element
+     * @return  a List of the values to compare
+     */
+    private List<Object> getLayoutKey(Element element) {
+        return Arrays.asList(element.getClass(), element.getCanonicalName());
+    }
+
+    /**
+     * Gets the key used to match relationship views when copying layout information between views.
+     * This is consistent with {@link Relationship#equals(Object)}, which compares the source, destination
+     * and description rather than the ID.
+     *
+     * @param relationshipView  a RelationshipView
+     * @return  a List of the values to compare, or null if the relationship view shouldn't be matched
+     */
+    List<Object> getLayoutKey(RelationshipView relationshipView) {
+        Relationship relationship = relationshipView.getRelationship();
+        if (relationship == null) {
+            return null;
         }
 
-        return null;
-    }
+        if (relationship.getSource() == null || relationship.getDestination() == null) {
+            return null;
+        }
 
-    public ElementView getElementView(Element element) {
-        Optional<ElementView> elementView = this.elementViews.stream().filter(ev -> ev.getElement().equals(element)).findFirst();
-        return elementView.isPresent() ? elementView.get() : null;
+        return Arrays.asList(getLayoutKey(relationship.getSource()), getLayoutKey(relationship.getDestination()), relationship.getDescription());
     }
 
-    protected RelationshipView findRelationshipView(RelationshipView sourceRelationshipView) {
-        for (RelationshipView relationshipView : getRelationships()) {
-            if (relationshipView.getRelationship().equals(sourceRelationshipView.getRelationship())) {
-                return relationshipView;
-            }
+    public ElementView getElementView(Element element) {
+        if (element == null) {
+            return null;
         }
 
-        return null;
+        ElementView elementView = elementViewsById.get(element.getId());
+        return elementView != null && element.equals(elementView.getElement()) ? elementView : null;
     }
 
     public RelationshipView getRelationshipView(Relationship relationship) {
-        Optional<RelationshipView> relationshipView = this.relationshipViews.stream().filter(rv -> rv.getRelationship().equals(relationship)).findFirst();
-        return relationshipView.isPresent() ? relationshipView.get() : null;
+        if (relationship == null) {
+            return null;
+        }
+
+        RelationshipView relationshipView = relationshipViewsById.get(relationship.getId());
+        return relationshipView != null && relationship.equals(relationshipView.getRelationship()) ? relationshipView : null;
     }
 
 }
\ No newline at end of file
@@ -7,9 +7,9 @@ import com.structurizr.model.SoftwareSystem;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A set of views onto a software architecture model.
@@ -29,6 +29,10 @@ public class ViewSet {
 
     private Collection<FilteredView> filteredViews = new HashSet<>();
 
+    // all of the above, keyed on view key; built on first use (e.g. after deserialization) and then maintained
+    private Map<String, View> viewsByKey;
+    private Map<String, FilteredView> filteredViewsByKey;
+
     private Configuration configuration = new Configuration();
 
     ViewSet() {
@@ -60,6 +64,7 @@ public class ViewSet {
 
         EnterpriseContextView view = new EnterpriseContextView(model, key, description);
         enterpriseContextViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -78,6 +83,7 @@ public class ViewSet {
 
         SystemContextView view = new SystemContextView(softwareSystem, key, description);
         systemContextViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -96,6 +102,7 @@ public class ViewSet {
 
         ContainerView view = new ContainerView(softwareSystem, key, description);
         containerViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -114,6 +121,7 @@ public class ViewSet {
 
         ComponentView view = new ComponentView(container, key, description);
         componentViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -130,6 +138,7 @@ public class ViewSet {
 
         DynamicView view = new DynamicView(getModel(), key, description);
         dynamicViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -155,6 +164,7 @@ public class ViewSet {
 
         DynamicView view = new DynamicView(softwareSystem, key, description);
         dynamicViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -181,6 +191,7 @@ public class ViewSet {
 
         DynamicView view = new DynamicView(container, key, description);
         dynamicViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -197,6 +208,7 @@ public class ViewSet {
 
         DeploymentView view = new DeploymentView(getModel(), key, description);
         deploymentViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -215,6 +227,7 @@ public class ViewSet {
 
         DeploymentView view = new DeploymentView(softwareSystem, key, description);
         deploymentViews.add(view);
+        registerView(view);
         return view;
     }
 
@@ -233,15 +246,45 @@ public class ViewSet {
 
         FilteredView filteredView = new FilteredView(view, key, description, mode, tags);
         filteredViews.add(filteredView);
+        getFilteredViewsByKey().put(key, filteredView);
         return filteredView;
     }
 
     private void assertThatTheViewKeyIsUnique(String key) {
-        if (getViewWithKey(key) != null) {
+        if (getViewWithKey(key) != null || getFilteredViewWithKey(key) != null) {
             throw new IllegalArgumentException("A view with the key " + key + " already exists.");
         }
     }
 
+    private void registerView(View view) {
+        getViewsByKey().put(view.getKey(), view);
+    }
+
+    private Map<String, View> getViewsByKey() {
+        if (viewsByKey == null) {
+            Map<String, View> map = new HashMap<>();
+            Stream.of(enterpriseContextViews, systemContextViews, containerViews, componentViews, dynamicViews, deploymentViews)
+                    .flatMap(Collection::stream)
+                    .filter(v -> v.getKey() != null)
+                    .forEach(v -> map.putIfAbsent(v.getKey(), v));
+            viewsByKey = map;
+        }
+
+        return viewsByKey;
+    }
+
+    private Map<String, FilteredView> getFilteredViewsByKey() {
+        if (filteredViewsByKey == null) {
+            Map<String, FilteredView> map = new HashMap<>();
+            filteredViews.stream()
+                    .filter(v -> v.getKey() != null)
+                    .forEach(v -> map.putIfAbsent(v.getKey(), v));
+            filteredViewsByKey = map;
+        }
+
+        return filteredViewsByKey;
+    }
+
     private void assertThatTheSoftwareSystemIsNotNull(SoftwareSystem softwareSystem) {
         if (softwareSystem == null) {
             throw new IllegalArgumentException("Software system must not be null.");
@@ -261,19 +304,25 @@ public class ViewSet {
      * @return  a View object, or null if a view with the specified key could not be found
      */
     public View getViewWithKey(String key) {
-        View view = null;
-
         if (key != null) {
-            Set<View> views = new HashSet<>();
-            views.addAll(systemContextViews);
-            views.addAll(containerViews);
-            views.addAll(componentViews);
-            views.addAll(dynamicViews);
-
-            view = views.stream().filter(v -> key.equals(v.getKey())).findFirst().orElse(null);
+            return getViewsByKey().get(key);
+        } else {
+            return null;
         }
+    }
 
-        return view;
+    /**
+     * Finds the filtered view with the specified key, or null if the filtered view does not exist.
+     *
+     * @param key   the key
+     * @return  a FilteredView object, or null if a filtered view with the specified key could not be found
+     */
+    public FilteredView getFilteredViewWithKey(String key) {
+        if (key != null) {
+            return getFilteredViewsByKey().get(key);
+        } else {
+            return null;
+        }
     }
 
     /**
@@ -285,6 +334,16 @@ public class ViewSet {
         return new HashSet<>(enterpriseContextViews);
     }
 
+    /**
+     * Gets the enterprise context views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of EnterpriseContextView objects
+     */
+    @JsonIgnore
+    public Collection<EnterpriseContextView> getUnmodifiableEnterpriseContextViews() {
+        return Collections.unmodifiableCollection(enterpriseContextViews);
+    }
+
     /**
      * Gets the set of system context views.
      *
@@ -294,6 +353,16 @@ public class ViewSet {
         return new HashSet<>(systemContextViews);
     }
 
+    /**
+     * Gets the system context views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of SystemContextView objects
+     */
+    @JsonIgnore
+    public Collection<SystemContextView> getUnmodifiableSystemContextViews() {
+        return Collections.unmodifiableCollection(systemContextViews);
+    }
+
     /**
      * Gets the set of container views.
      *
@@ -303,6 +372,16 @@ public class ViewSet {
         return new HashSet<>(containerViews);
     }
 
+    /**
+     * Gets the container views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of ContainerView objects
+     */
+    @JsonIgnore
+    public Collection<ContainerView> getUnmodifiableContainerViews() {
+        return Collections.unmodifiableCollection(containerViews);
+    }
+
     /**
      * Gets the set of component views.
      *
@@ -312,6 +391,16 @@ public class ViewSet {
         return new HashSet<>(componentViews);
     }
 
+    /**
+     * Gets the component views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of ComponentView objects
+     */
+    @JsonIgnore
+    public Collection<ComponentView> getUnmodifiableComponentViews() {
+        return Collections.unmodifiableCollection(componentViews);
+    }
+
     /**
      * Gets the set of dynamic views.
      *
@@ -321,10 +410,30 @@ public class ViewSet {
         return new HashSet<>(dynamicViews);
     }
 
+    /**
+     * Gets the dynamic views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of DynamicView objects
+     */
+    @JsonIgnore
+    public Collection<DynamicView> getUnmodifiableDynamicViews() {
+        return Collections.unmodifiableCollection(dynamicViews);
+    }
+
     public Collection<FilteredView> getFilteredViews() {
         return new HashSet<>(filteredViews);
     }
 
+    /**
+     * Gets the filtered views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of FilteredView objects
+     */
+    @JsonIgnore
+    public Collection<FilteredView> getUnmodifiableFilteredViews() {
+        return Collections.unmodifiableCollection(filteredViews);
+    }
+
     /**
      * Gets the set of dynamic views.
      *
@@ -334,53 +443,59 @@ public class ViewSet {
         return new HashSet<>(deploymentViews);
     }
 
+    /**
+     * Gets the deployment views, as a read-only view rather than a copy.
+     *
+     * @return  an unmodifiable Collection of DeploymentView objects
+     */
+    @JsonIgnore
+    public Collection<DeploymentView> getUnmodifiableDeploymentViews() {
+        return Collections.unmodifiableCollection(deploymentViews);
+    }
+
     public void hydrate() {
+        // the views have (probably) just been deserialized, so index them again
+        viewsByKey = null;
+        filteredViewsByKey = null;
+
         for (EnterpriseContextView view : enterpriseContextViews) {
             view.setModel(model);
-            hydrateView(view);
         }
 
         for (SystemContextView view : systemContextViews) {
             view.setSoftwareSystem(model.getSoftwareSystemWithId(view.getSoftwareSystemId()));
-            hydrateView(view);
         }
 
         for (ContainerView view : containerViews) {
             view.setSoftwareSystem(model.getSoftwareSystemWithId(view.getSoftwareSystemId()));
-            hydrateView(view);
         }
 
         for (ComponentView view : componentViews) {
             view.setSoftwareSystem(model.getSoftwareSystemWithId(view.getSoftwareSystemId()));
             view.setContainer(view.getSoftwareSystem().getContainerWithId(view.getContainerId()));
-            hydrateView(view);
         }
 
         for (DynamicView view : dynamicViews) {
             view.setModel(model);
-            hydrateView(view);
         }
 
         for (DeploymentView view : deploymentViews) {
             view.setSoftwareSystem(model.getSoftwareSystemWithId(view.getSoftwareSystemId()));
             view.setModel(model);
-            hydrateView(view);
         }
 
+        // the model is read-only from here on, so the views can resolve their references independently
+        Stream.of(enterpriseContextViews, systemContextViews, containerViews, componentViews, dynamicViews, deploymentViews)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList())
+                .parallelStream()
+                .forEach(view -> view.hydrate(model));
+
         for (FilteredView filteredView : filteredViews) {
             filteredView.setView(getViewWithKey(filteredView.getBaseViewKey()));
         }
     }
 
-    private void hydrateView(View view) {
-        for (ElementView elementView : view.getElements()) {
-            elementView.setElement(model.getElement(elementView.getId()));
-        }
-        for (RelationshipView relationshipView : view.getRelationships()) {
-            relationshipView.setRelationship(model.getRelationship(relationshipView.getId()));
-        }
-    }
-
     /**
      * Gets the configuration object associated with this set of views.
      *
@@ -391,53 +506,32 @@ public class ViewSet {
     }
 
     public void copyLayoutInformationFrom(ViewSet source) {
-        for (EnterpriseContextView view : enterpriseContextViews) {
-            EnterpriseContextView sourceView = findView(source.getEnterpriseContextViews(), view);
-            if (sourceView != null) {
-                view.copyLayoutInformationFrom(sourceView);
-            } else {
-                log.warn("Could not find a matching view for \"" + view.getName() + "\" ... diagram layout information may be lost.");
-            }
-        }
-
-        for (SystemContextView view : systemContextViews) {
-            SystemContextView sourceView = findView(source.getSystemContextViews(), view);
-            if (sourceView != null) {
-                view.copyLayoutInformationFrom(sourceView);
-            } else {
-                log.warn("Could not find a matching view for \"" + view.getName() + "\" ... diagram layout information may be lost.");
-            }
-        }
+        copyLayoutInformationFrom(source, source.getUnmodifiableEnterpriseContextViews(), enterpriseContextViews);
+        copyLayoutInformationFrom(source, source.getUnmodifiableSystemContextViews(), systemContextViews);
+        copyLayoutInformationFrom(source, source.getUnmodifiableContainerViews(), containerViews);
+        copyLayoutInformationFrom(source, source.getUnmodifiableComponentViews(), componentViews);
+        copyLayoutInformationFrom(source, source.getUnmodifiableDynamicViews(), dynamicViews);
+        copyLayoutInformationFrom(source, source.getUnmodifiableDeploymentViews(), deploymentViews);
+    }
 
-        for (ContainerView view : containerViews) {
-            ContainerView sourceView = findView(source.getContainerViews(), view);
-            if (sourceView != null) {
-                view.copyLayoutInformationFrom(sourceView);
-            } else {
-                log.warn("Could not find a matching view for \"" + view.getName() + "\" ... diagram layout information may be lost.");
-            }
-        }
+    private <T extends View> void copyLayoutInformationFrom(ViewSet source, Collection<T> sourceViews, Collection<T> views) {
+        // views are matched by key, falling back to name (and description), so the source views are
+        // only indexed by name if there's a view that can't be matched by key
+        Map<String, List<T>> sourceViewsByName = null;
 
-        for (ComponentView view : componentViews) {
-            ComponentView sourceView = findView(source.getComponentViews(), view);
-            if (sourceView != null) {
-                view.copyLayoutInformationFrom(sourceView);
-            } else {
-                log.warn("Could not find a matching view for \"" + view.getName() + "\" ... diagram layout information may be lost.");
-            }
-        }
+        for (T view : views) {
+            T sourceView = findViewWithSameKey(source, view);
+            if (sourceView == null) {
+                if (sourceViewsByName == null) {
+                    sourceViewsByName = new HashMap<>();
+                    for (T v : sourceViews) {
+                        sourceViewsByName.computeIfAbsent(v.getName(), name -> new ArrayList<>()).add(v);
+                    }
+                }
 
-        for (DynamicView view : dynamicViews) {
-            DynamicView sourceView = findView(source.getDynamicViews(), view);
-            if (sourceView != null) {
-                view.copyLayoutInformationFrom(sourceView);
-            } else {
-                log.warn("Could not find a matching view for \"" + view.getName() + "\" ... diagram layout information may be lost.");
+                sourceView = findViewWithSameNameAndDescription(sourceViewsByName.getOrDefault(view.getName(), Collections.emptyList()), view);
             }
-        }
 
-        for (DeploymentView view : deploymentViews) {
-            DeploymentView sourceView = findView(source.getDeploymentViews(), view);
             if (sourceView != null) {
                 view.copyLayoutInformationFrom(sourceView);
             } else {
@@ -446,22 +540,24 @@ public class ViewSet {
         }
     }
 
-    private <T extends View> T findView(Collection<T> views, T sourceView) {
-        for (T view : views) {
-            if (view.getKey() != null && view.getKey().equals(sourceView.getKey())) {
-                return view;
-            }
+    @SuppressWarnings("unchecked")
+    private <T extends View> T findViewWithSameKey(ViewSet source, T view) {
+        View viewWithSameKey = source.getViewWithKey(view.getKey());
+        if (viewWithSameKey != null && viewWithSameKey.getClass() == view.getClass()) {
+            return (T)viewWithSameKey;
         }
 
-        for (T view : views) {
-            if (view.getName().equals(sourceView.getName())) {
-                if (view.getDescription() != null) {
-                    if (view.getDescription().equals(sourceView.getDescription())) {
-                        return view;
-                    }
-                } else {
-                    return view;
+        return null;
+    }
+
+    private <T extends View> T findViewWithSameNameAndDescription(List<T> viewsWithSameName, T view) {
+        for (T v : viewsWithSameName) {
+            if (v.getDescription() != null) {
+                if (v.getDescription().equals(view.getDescription())) {
+                    return v;
                 }
+            } else {
+                return v;
             }
         }
 
@@ -0,0 +1,140 @@
+package com.structurizr.encryption;
+
+import org.junit.Test;
+
+import javax.crypto.AEADBadTagException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ChunkedAesGcmEncryptionStrategyTests {
+
+    private static final int CHUNK_SIZE = 16;
+
+    // 90 bytes of UTF-8, so the last of the 6 chunks is partially full (and the first ends part way through "ç")
+    private static final String PLAINTEXT = "Structurizr, façade, naïve, café: software architecture diagrams as code, from a model.";
+
+    private final ChunkedAesGcmEncryptionStrategy strategy = new ChunkedAesGcmEncryptionStrategy(128, 1000, CHUNK_SIZE, "password");
+
+    @Test
+    public void test_decrypt_ReturnsThePlaintext() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        assertNotEquals(PLAINTEXT, ciphertext);
+        assertEquals(PLAINTEXT, strategy.decrypt(ciphertext));
+    }
+
+    @Test
+    public void test_decrypt_ReturnsThePlaintext_WhenDecryptedWithAnotherStrategyWithTheSameParameters() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+        ChunkedAesGcmEncryptionStrategy otherStrategy = new ChunkedAesGcmEncryptionStrategy(
+                strategy.getKeySize(), strategy.getIterationCount(), strategy.getChunkSize(), strategy.getSalt(), "password");
+
+        assertEquals(PLAINTEXT, otherStrategy.decrypt(ciphertext));
+    }
+
+    @Test
+    public void test_encrypt_ProducesDifferentCiphertexts_WhenCalledTwice() throws Exception {
+        assertNotEquals(strategy.encrypt(PLAINTEXT), strategy.encrypt(PLAINTEXT));
+    }
+
+    @Test
+    public void test_decrypt_ReturnsAnEmptyString_WhenThePlaintextIsEmpty() throws Exception {
+        String ciphertext = strategy.encrypt("");
+
+        assertEquals(1, strategy.getNumberOfChunks(ciphertext));
+        assertEquals("", strategy.decrypt(ciphertext));
+    }
+
+    @Test
+    public void test_getNumberOfChunks_ReturnsTheNumberOfChunks() throws Exception {
+        int length = PLAINTEXT.getBytes(StandardCharsets.UTF_8).length;
+
+        assertEquals((length + CHUNK_SIZE - 1) / CHUNK_SIZE, strategy.getNumberOfChunks(strategy.encrypt(PLAINTEXT)));
+    }
+
+    @Test
+    public void test_decryptChunk_ReturnsThePlaintextBytesOfEachChunk() throws Exception {
+        byte[] bytes = PLAINTEXT.getBytes(StandardCharsets.UTF_8);
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        for (int i = 0; i < strategy.getNumberOfChunks(ciphertext); i++) {
+            byte[] expected = Arrays.copyOfRange(bytes, i * CHUNK_SIZE, Math.min(bytes.length, (i + 1) * CHUNK_SIZE));
+            assertArrayEquals(expected, strategy.decryptChunk(ciphertext, i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_decryptChunk_ThrowsAnException_WhenTheIndexIsTooLarge() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        strategy.decryptChunk(ciphertext, strategy.getNumberOfChunks(ciphertext));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_decryptChunk_ThrowsAnException_WhenTheIndexIsVeryLarge() throws Exception {
+        strategy.decryptChunk(strategy.encrypt(PLAINTEXT), Integer.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_decryptChunk_ThrowsAnException_WhenTheIndexIsNegative() throws Exception {
+        strategy.decryptChunk(strategy.encrypt(PLAINTEXT), -1);
+    }
+
+    @Test(expected = AEADBadTagException.class)
+    public void test_decrypt_ThrowsAnException_WhenChunksHaveBeenSwapped() throws Exception {
+        String[] parts = strategy.encrypt(PLAINTEXT).split("\\.");
+        String part = parts[1];
+        parts[1] = parts[2];
+        parts[2] = part;
+
+        strategy.decrypt(String.join(".", parts));
+    }
+
+    @Test(expected = AEADBadTagException.class)
+    public void test_decrypt_ThrowsAnException_WhenAChunkIsFromAnotherCiphertext() throws Exception {
+        String[] parts = strategy.encrypt(PLAINTEXT).split("\\.");
+        String[] otherParts = strategy.encrypt(PLAINTEXT).split("\\.");
+        parts[2] = otherParts[2];
+
+        strategy.decrypt(String.join(".", parts));
+    }
+
+    @Test(expected = AEADBadTagException.class)
+    public void test_decrypt_ThrowsAnException_WhenTheLastChunkHasBeenRemoved() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        strategy.decrypt(ciphertext.substring(0, ciphertext.lastIndexOf('.')));
+    }
+
+    @Test(expected = GeneralSecurityException.class)
+    public void test_decrypt_ThrowsAnException_WhenTheCiphertextHasBeenTruncatedWithinAChunk() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        strategy.decrypt(ciphertext.substring(0, ciphertext.length() - 3));
+    }
+
+    @Test(expected = GeneralSecurityException.class)
+    public void test_decrypt_ThrowsAnException_WhenTheCiphertextHasNoChunks() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+
+        strategy.decrypt(ciphertext.substring(0, ciphertext.indexOf('.')));
+    }
+
+    @Test(expected = AEADBadTagException.class)
+    public void test_decrypt_ThrowsAnException_WhenThePassphraseIsWrong() throws Exception {
+        String ciphertext = strategy.encrypt(PLAINTEXT);
+        ChunkedAesGcmEncryptionStrategy otherStrategy = new ChunkedAesGcmEncryptionStrategy(
+                strategy.getKeySize(), strategy.getIterationCount(), strategy.getChunkSize(), strategy.getSalt(), "wrong password");
+
+        otherStrategy.decrypt(ciphertext);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construction_ThrowsAnException_WhenTheChunkSizeIsNotPositive() {
+        new ChunkedAesGcmEncryptionStrategy(128, 1000, 0, "password");
+    }
+
+}
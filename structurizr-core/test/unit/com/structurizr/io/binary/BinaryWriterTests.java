@@ -0,0 +1,100 @@
+package com.structurizr.io.binary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Format;
+import com.structurizr.io.json.JsonReader;
+import com.structurizr.io.json.JsonWriter;
+import com.structurizr.model.Container;
+import com.structurizr.model.Person;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.model.Tags;
+import com.structurizr.view.ContainerView;
+import com.structurizr.view.FilterMode;
+import com.structurizr.view.SystemContextView;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class BinaryWriterTests {
+
+    static Workspace createWorkspace() {
+        Workspace workspace = new Workspace("Name", "Description");
+        Person user = workspace.getModel().addPerson("User", "A user.");
+        SoftwareSystem softwareSystem = workspace.getModel().addSoftwareSystem("Software System", "A software system.");
+        Container webApplication = softwareSystem.addContainer("Web Application", "Serves the UI.", "Java");
+        Container database = softwareSystem.addContainer("Database", "Stores data.", "MySQL");
+        database.addTags("Database");
+        user.uses(webApplication, "Uses", "HTTPS");
+        webApplication.uses(database, "Reads from and writes to", "JDBC");
+
+        SystemContextView systemContextView = workspace.getViews().createSystemContextView(softwareSystem, "context", "A system context view.");
+        systemContextView.addAllElements();
+        ContainerView containerView = workspace.getViews().createContainerView(softwareSystem, "containers", "A container view.");
+        containerView.addAllElements();
+        workspace.getViews().createFilteredView(containerView, "containers-without-databases", "A filtered view.", FilterMode.Exclude, "Database");
+
+        workspace.getDocumentation().addCustomSection("Introduction", 1, Format.Markdown, "An introduction.");
+        workspace.getDocumentation().addCustomSection(softwareSystem, "Context", 1, Format.Markdown, "About the software system.");
+
+        workspace.getViews().getConfiguration().getStyles().addElementStyle(Tags.PERSON).background("#08427b");
+
+        return workspace;
+    }
+
+    static String toJson(Workspace workspace) throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        new JsonWriter(false).write(workspace, stringWriter);
+        return stringWriter.toString();
+    }
+
+    /**
+     * Some collections (e.g. the containers in a software system) are serialized from hash sets, so the
+     * JSON is compared with the elements of every array sorted.
+     */
+    static String normalise(String json) throws Exception {
+        return normalise(new ObjectMapper().readTree(json)).toString();
+    }
+
+    private static Object normalise(JsonNode node) {
+        if (node.isArray()) {
+            List<String> values = new ArrayList<>();
+            node.forEach(value -> values.add(normalise(value).toString()));
+            Collections.sort(values);
+            return values;
+        } else if (node.isObject()) {
+            Map<String, Object> values = new TreeMap<>();
+            node.fields().forEachRemaining(field -> values.put(field.getKey(), normalise(field.getValue())));
+            return values;
+        } else {
+            return node.toString();
+        }
+    }
+
+    @Test
+    public void test_write_ProducesTheSameWorkspaceAsJson_WhenReadBackFromAStream() throws Exception {
+        Workspace workspace = new JsonReader().read(new StringReader(toJson(createWorkspace())));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryWriter().write(workspace, outputStream);
+        Workspace binaryWorkspace = new BinaryReader().read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertEquals(normalise(toJson(workspace)), normalise(toJson(binaryWorkspace)));
+    }
+
+    @Test
+    public void test_write_ProducesTheSameWorkspaceAsJson_WhenWrittenAsBase64() throws Exception {
+        Workspace workspace = new JsonReader().read(new StringReader(toJson(createWorkspace())));
+
+        StringWriter stringWriter = new StringWriter();
+        new BinaryWriter().write(workspace, stringWriter);
+        Workspace binaryWorkspace = new BinaryReader().read(new StringReader(stringWriter.toString()));
+
+        assertEquals(normalise(toJson(workspace)), normalise(toJson(binaryWorkspace)));
+    }
+
+}
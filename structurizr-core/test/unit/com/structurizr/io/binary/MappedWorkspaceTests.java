@@ -0,0 +1,155 @@
+package com.structurizr.io.binary;
+
+import com.structurizr.Workspace;
+import com.structurizr.documentation.Image;
+import com.structurizr.documentation.Section;
+import com.structurizr.model.SoftwareSystem;
+import com.structurizr.view.ElementView;
+import com.structurizr.view.FilteredView;
+import com.structurizr.view.View;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MappedWorkspaceTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Workspace workspace;
+    private Image image;
+    private MappedWorkspace mappedWorkspace;
+
+    @Before
+    public void setUp() throws Exception {
+        workspace = BinaryWriterTests.createWorkspace();
+
+        File imageFile = temporaryFolder.newFile("diagram.png");
+        ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB), "png", imageFile);
+        image = workspace.getDocumentation().addImage(imageFile);
+
+        File file = temporaryFolder.newFile("workspace.bin");
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            new BinaryWriter().write(workspace, outputStream);
+        }
+
+        mappedWorkspace = new MappedWorkspace(file);
+    }
+
+    @Test
+    public void test_getViewKeys_ReturnsTheKeysOfAllViews() throws Exception {
+        assertEquals(new HashSet<>(Arrays.asList("context", "containers", "containers-without-databases")),
+                new HashSet<>(mappedWorkspace.getViewKeys()));
+    }
+
+    @Test
+    public void test_getView_ReturnsAHydratedView() throws Exception {
+        View view = mappedWorkspace.getView("containers");
+        View original = workspace.getViews().getViewWithKey("containers");
+
+        assertEquals(original.getDescription(), view.getDescription());
+        assertEquals(elementIds(original), elementIds(view));
+        assertEquals(original.getRelationships().size(), view.getRelationships().size());
+        for (ElementView elementView : view.getElements()) {
+            assertNotNull(elementView.getElement());
+            assertSame(mappedWorkspace.getModel(), elementView.getElement().getModel());
+        }
+    }
+
+    @Test
+    public void test_getView_ReturnsTheSameView_WhenCalledTwice() throws Exception {
+        assertSame(mappedWorkspace.getView("context"), mappedWorkspace.getView("context"));
+    }
+
+    @Test
+    public void test_getView_ReturnsNull_WhenThereIsNoViewWithTheKey() throws Exception {
+        assertNull(mappedWorkspace.getView("missing"));
+        assertNull(mappedWorkspace.getView(null));
+    }
+
+    @Test
+    public void test_getView_ReturnsTheViewFromTheViewSet_WhenAllViewsHaveBeenDecoded() throws Exception {
+        mappedWorkspace.getViews();
+
+        assertSame(mappedWorkspace.getViews().getViewWithKey("context"), mappedWorkspace.getView("context"));
+    }
+
+    @Test
+    public void test_getFilteredView_ReturnsTheFilteredViewAndItsBaseView() throws Exception {
+        FilteredView filteredView = mappedWorkspace.getFilteredView("containers-without-databases");
+
+        assertEquals("containers", filteredView.getBaseViewKey());
+        assertNotNull(filteredView.getView());
+        assertEquals(elementIds(workspace.getViews().getViewWithKey("containers")), elementIds(filteredView.getView()));
+        assertEquals(Collections.singleton("Database"), filteredView.getTags());
+    }
+
+    @Test
+    public void test_getFilteredView_ReturnsNull_WhenThereIsNoFilteredViewWithTheKey() throws Exception {
+        assertNull(mappedWorkspace.getFilteredView("containers"));
+    }
+
+    @Test
+    public void test_getSectionTypes_ReturnsTheTypesOfTheSectionsForAnElement() throws Exception {
+        SoftwareSystem softwareSystem = mappedWorkspace.getModel().getSoftwareSystemWithName("Software System");
+
+        assertEquals(Collections.singletonList("Introduction"), mappedWorkspace.getSectionTypes(null));
+        assertEquals(Collections.singletonList("Context"), mappedWorkspace.getSectionTypes(softwareSystem));
+    }
+
+    @Test
+    public void test_getSection_ReturnsTheSection() throws Exception {
+        SoftwareSystem softwareSystem = mappedWorkspace.getModel().getSoftwareSystemWithName("Software System");
+
+        Section section = mappedWorkspace.getSection(softwareSystem, "Context");
+        assertEquals("About the software system.", section.getContent());
+        assertSame(softwareSystem, section.getElement());
+
+        assertEquals("An introduction.", mappedWorkspace.getSection(null, "Introduction").getContent());
+    }
+
+    @Test
+    public void test_getSection_ReturnsNull_WhenThereIsNoSuchSection() throws Exception {
+        assertNull(mappedWorkspace.getSection(null, "Context"));
+    }
+
+    @Test
+    public void test_getImage_ReturnsTheImage() throws Exception {
+        assertEquals(Collections.singletonList("diagram.png"), mappedWorkspace.getImageNames());
+
+        Image decodedImage = mappedWorkspace.getImage("diagram.png");
+        assertEquals(image.getType(), decodedImage.getType());
+        assertEquals(image.getContent(), decodedImage.getContent());
+    }
+
+    @Test
+    public void test_getImage_ReturnsNull_WhenThereIsNoImageWithTheName() throws Exception {
+        assertNull(mappedWorkspace.getImage("missing.png"));
+    }
+
+    @Test
+    public void test_getWorkspace_ReturnsTheWholeWorkspace() throws Exception {
+        assertEquals(BinaryWriterTests.normalise(BinaryWriterTests.toJson(workspace)),
+                BinaryWriterTests.normalise(BinaryWriterTests.toJson(mappedWorkspace.getWorkspace())));
+    }
+
+    private Set<String> elementIds(View view) {
+        Set<String> ids = new HashSet<>();
+        for (ElementView elementView : view.getElements()) {
+            ids.add(elementView.getId());
+        }
+
+        return ids;
+    }
+
+}